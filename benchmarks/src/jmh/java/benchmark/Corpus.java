@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Generated PrintScript programs, each stressing a different part of the pipeline. The same kind and size
+ * always give the same program, so results can be compared between runs.
+ */
+public enum Corpus {
+
+    /** Number variables updated over and over with arithmetic. */
+    ARITHMETIC {
+        @Override
+        void generate(StringBuilder out, int statements, Random random) {
+            int variables = 8;
+            for (int i = 0; i < variables; i++) {
+                out.append("let n").append(i).append(": number = ").append(i + 1).append(";\n");
+            }
+            for (int i = variables; i < statements; i++) {
+                int target = random.nextInt(variables);
+                out.append('n').append(target).append(" = (n").append(random.nextInt(variables))
+                        .append(" * ").append(random.nextInt(9) + 1)
+                        .append(" + n").append(random.nextInt(variables))
+                        .append(" / ").append(random.nextInt(9) + 1)
+                        .append(" - ").append(random.nextInt(100)).append(") / 10;\n");
+                if (i % 16 == 0) out.append("print n").append(target).append(";\n");
+            }
+        }
+    },
+
+    /** Strings concatenated with strings and numbers, and printed. */
+    STRINGS {
+        @Override
+        void generate(StringBuilder out, int statements, Random random) {
+            int variables = 8;
+            for (int i = 0; i < variables; i++) {
+                out.append("let s").append(i).append(": string = \"").append(WORDS[i % WORDS.length]).append("\";\n");
+            }
+            for (int i = variables; i < statements; i++) {
+                int target = random.nextInt(variables);
+                if (i % 32 == 0) {
+                    // Starting the variables over in turn keeps the strings from growing without end.
+                    out.append('s').append(i / 32 % variables).append(" = \"").append(WORDS[random.nextInt(WORDS.length)]).append("\";\n");
+                } else if (i % 8 == 0) {
+                    out.append("print \"").append(WORDS[random.nextInt(WORDS.length)]).append(" \" + ").append(i)
+                            .append(" + \": \" + s").append(target).append(";\n");
+                } else {
+                    out.append('s').append(target).append(" = s").append(target).append(" + \" ")
+                            .append(WORDS[random.nextInt(WORDS.length)]).append(" \" + ").append(random.nextInt(1000)).append(";\n");
+                }
+            }
+        }
+    },
+
+    /** Blocks and ifs nested deep inside each other, declaring variables at every level. */
+    NESTED {
+        @Override
+        void generate(StringBuilder out, int statements, Random random) {
+            out.append("let depth: number = 0;\n");
+            int written = 1;
+            while (written < statements) {
+                written += nest(out, 0, random);
+            }
+        }
+
+        private int nest(StringBuilder out, int level, Random random) {
+            String name = "d" + level;
+            String outer = level == 0 ? "depth" : "d" + (level - 1);
+            out.append("{\n");
+            out.append("let ").append(name).append(": number = ").append(outer).append(" + 1;\n");
+            int written = 1;
+            if (level < DEPTH) {
+                out.append("if (").append(name).append(" > ").append(random.nextInt(DEPTH)).append(") ");
+                written += 1 + nest(out, level + 1, random);
+                out.append(" else {\nprint ").append(name).append(" * 2;\n}\n");
+                written++;
+            } else {
+                out.append("print \"bottom \" + ").append(name).append(";\n");
+                written++;
+            }
+            out.append("}");
+            if (level == 0) out.append('\n');
+            return written;
+        }
+    },
+
+    /** A long run of top-level declarations and prints, each with a name of its own. */
+    FLAT {
+        @Override
+        void generate(StringBuilder out, int statements, Random random) {
+            for (int i = 0; i < statements; i += 3) {
+                out.append("const c").append(i).append(": number = ").append(random.nextInt(1000)).append(" * 2;\n");
+                out.append("let t").append(i).append(": string = \"line \" + c").append(i).append(";\n");
+                out.append("print t").append(i).append(" + \" \" + c").append(i).append(" / 4;\n");
+            }
+        }
+    };
+
+    private static final String[] WORDS = { "alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta" };
+    private static final int DEPTH = 32;
+
+    /** A program of about the given number of statements. */
+    public String program(int statements) {
+        StringBuilder out = new StringBuilder(statements * 32);
+        generate(out, statements, new Random(ordinal() * 31L + statements));
+        return out.toString();
+    }
+
+    abstract void generate(StringBuilder out, int statements, Random random);
+}
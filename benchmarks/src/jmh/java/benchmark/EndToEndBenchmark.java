@@ -0,0 +1,39 @@
+package benchmark;
+
+import engine.Engine;
+import org.openjdk.jmh.annotations.*;
+import output.BufferedOutput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * From source text to printed output, as the command line does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EndToEndBenchmark {
+
+    @Param
+    Corpus corpus;
+
+    @Param({"10000"})
+    int size;
+
+    @Param({"interpret", "compile-run", "jvm", "closure", "nodes"})
+    String mode;
+
+    private String source;
+
+    @Setup
+    public void generate() {
+        source = corpus.program(size);
+    }
+
+    @Benchmark
+    public void run() {
+        BufferedOutput out = Pipeline.discardingOutput();
+        Engine.forMode(mode).run(Engine.analyze(Pipeline.parse(source)), out);
+        out.flush();
+    }
+}
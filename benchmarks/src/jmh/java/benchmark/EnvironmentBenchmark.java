@@ -0,0 +1,98 @@
+package benchmark;
+
+import environment.Environment;
+import environment.FrameEnvironment;
+import org.openjdk.jmh.annotations.*;
+import scope.ScopeDescriptor;
+import statement.Statement;
+import statement.impl.VariableStatement;
+import token.SymbolTable;
+import token.Token;
+import token.TokenBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static token.TokenType.*;
+
+/**
+ * Reading and assigning variables declared at every level of nested scopes, through the resolved frames the
+ * interpreter uses and through the map per scope it searched by name before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnvironmentBenchmark {
+
+    private static final int VARIABLES_PER_SCOPE = 8;
+    private static final int ACCESSES = 1024;
+
+    @Param({"1", "4", "16", "64"})
+    int depth;
+
+    // What each access reads then assigns: the variable, and where the resolver would have bound it.
+    private Token[] names;
+    private int[] depths;
+    private int[] slots;
+
+    private HashMapEnvironment chain;
+    private Environment frame;
+
+    @Setup
+    public void declare() {
+        SymbolTable symbols = new SymbolTable();
+        Token let = TokenBuilder.createBuilder().addType(LET).addLexeme("let").addLine(1).buildToken();
+        Token[][] declared = new Token[depth][VARIABLES_PER_SCOPE];
+        for (int scope = 0; scope < depth; scope++) {
+            chain = new HashMapEnvironment(chain);
+            List<Statement> declarations = new ArrayList<>();
+            for (int slot = 0; slot < VARIABLES_PER_SCOPE; slot++) {
+                String name = "v" + scope + "_" + slot;
+                Token token = TokenBuilder.createBuilder().addType(IDENTIFIER).addLexeme(name).addLine(1)
+                        .addSymbol(symbols.intern(name)).buildToken();
+                declared[scope][slot] = token;
+                declarations.add(new VariableStatement(token, token.getSymbol(), null, NUMBER_TYPE, let));
+                chain.add(name, LET, NUMBER_TYPE, 0.0);
+            }
+            frame = new FrameEnvironment(frame, ScopeDescriptor.of(declarations));
+            for (int slot = 0; slot < VARIABLES_PER_SCOPE; slot++) {
+                frame.define(slot, 0.0);
+            }
+        }
+
+        Random random = new Random(depth);
+        names = new Token[ACCESSES];
+        depths = new int[ACCESSES];
+        slots = new int[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++) {
+            int scope = random.nextInt(depth);
+            slots[i] = random.nextInt(VARIABLES_PER_SCOPE);
+            names[i] = declared[scope][slots[i]];
+            depths[i] = depth - 1 - scope;
+        }
+    }
+
+    @Benchmark
+    public double hashMapChain() {
+        double sum = 0;
+        for (int i = 0; i < ACCESSES; i++) {
+            double value = (Double) chain.get(names[i]);
+            chain.assign(names[i], value + 1);
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double resolvedFrames() {
+        double sum = 0;
+        for (int i = 0; i < ACCESSES; i++) {
+            double value = (Double) frame.get(depths[i], slots[i]);
+            frame.assign(depths[i], slots[i], names[i], value + 1);
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import exception.InterpretException;
+import token.Token;
+import token.TokenType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static token.TokenType.*;
+
+/**
+ * The environment the interpreter used before variables were resolved to slots: a map from name to
+ * declaration per scope, searched from the innermost scope out on every access. Only kept as a baseline for
+ * {@link EnvironmentBenchmark}.
+ */
+class HashMapEnvironment {
+
+    private final Map<String, Declaration> values = new HashMap<>();
+    private final HashMapEnvironment enclosing;
+
+    HashMapEnvironment(HashMapEnvironment enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    Object get(Token name) {
+        if (values.containsKey(name.getLexeme())) {
+            return values.get(name.getLexeme()).value;
+        }
+
+        if (enclosing != null) return enclosing.get(name);
+
+        throw new InterpretException(name, "Variable not found");
+    }
+
+    void add(String name, TokenType keyword, TokenType type, Object value) {
+        values.put(name, new Declaration(keyword, type, value));
+    }
+
+    void assign(Token name, Object value) {
+        if (values.containsKey(name.getLexeme())) {
+            Declaration declaration = values.get(name.getLexeme());
+            if (declaration.keyword != LET) throw new InterpretException(name, "Constant cannot be changed");
+            if (declaration.type == BOOLEAN && !(value instanceof Boolean)) {
+                throw new InterpretException(name, "Expected a boolean");
+            } else if (declaration.type == NUMBER_TYPE && !(value instanceof Number)) {
+                throw new InterpretException(name, "Expected a number");
+            } else if (declaration.type == STRING_TYPE && !(value instanceof String)) {
+                throw new InterpretException(name, "Expected a string");
+            }
+            declaration.value = value;
+            values.put(name.getLexeme(), declaration);
+            return;
+        }
+        if (enclosing != null) {
+            enclosing.assign(name, value);
+            return;
+        }
+        throw new InterpretException(name, "Undefined variable '" + name.getLexeme() + "'.");
+    }
+
+    private static class Declaration {
+
+        private final TokenType keyword;
+        private final TokenType type;
+        private Object value;
+
+        Declaration(TokenType keyword, TokenType type, Object value) {
+            this.keyword = keyword;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
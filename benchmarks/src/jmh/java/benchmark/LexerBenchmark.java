@@ -0,0 +1,40 @@
+package benchmark;
+
+import lexer.impl.LexerImplementation;
+import lexer.impl.StreamingLexerImplementation;
+import org.openjdk.jmh.annotations.*;
+import token.Token;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LexerBenchmark {
+
+    @Param
+    Corpus corpus;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private String source;
+
+    @Setup
+    public void generate() {
+        source = corpus.program(size);
+    }
+
+    @Benchmark
+    public List<Token> scanTokens() {
+        return new LexerImplementation(source).scanTokens();
+    }
+
+    // What the command line uses for files that are not memory-mapped.
+    @Benchmark
+    public List<Token> streaming() {
+        return new StreamingLexerImplementation(new StringReader(source)).scanTokens();
+    }
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+import lexer.impl.MappedLexerImplementation;
+import lexer.impl.ParallelLexerImplementation;
+import org.openjdk.jmh.annotations.*;
+import token.Token;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexing a memory-mapped file of a few hundred megabytes, as the command line does for files that big, on one
+ * thread and on pools of more and more threads. The tokens of such a file take a few gigabytes of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Xmx8g")
+public class LexerScalingBenchmark {
+
+    @Param({"FLAT"})
+    Corpus corpus;
+
+    @Param({"256"})
+    int megabytes;
+
+    private Path file;
+    private ByteBuffer source;
+
+    /** The threads lexing in parallel, only varied for the benchmarks that use them. */
+    @State(Scope.Benchmark)
+    public static class Threads {
+
+        @Param({"1", "2", "4", "8"})
+        int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void start() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void stop() {
+            pool.shutdown();
+        }
+    }
+
+    // The same program over and over up to the size; lexing does not care that names are declared again.
+    @Setup
+    public void write() throws IOException {
+        file = Files.createTempFile("scaling", ".ps");
+        byte[] program = corpus.program(100000).getBytes(StandardCharsets.UTF_8);
+        long size = (long) megabytes << 20;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            for (long written = 0; written < size; written += program.length) {
+                out.write(program);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            source = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        source = null;
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Token> mapped() {
+        return new MappedLexerImplementation(source).scanTokens();
+    }
+
+    @Benchmark
+    public List<Token> parallel(Threads threads) {
+        return new ParallelLexerImplementation(source, threads.pool).scanTokens();
+    }
+}
@@ -0,0 +1,34 @@
+package benchmark;
+
+import lexer.impl.LexerImplementation;
+import org.openjdk.jmh.annotations.*;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+import token.Token;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParserBenchmark {
+
+    @Param
+    Corpus corpus;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private List<Token> tokens;
+
+    @Setup
+    public void scan() {
+        tokens = new LexerImplementation(corpus.program(size)).scanTokens();
+    }
+
+    @Benchmark
+    public List<Statement> parse() {
+        return new ParserImplementation(tokens).parse();
+    }
+}
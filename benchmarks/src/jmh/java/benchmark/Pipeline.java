@@ -0,0 +1,40 @@
+package benchmark;
+
+import lexer.impl.LexerImplementation;
+import output.BufferedOutput;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The steps the command line goes through before analysis, so that benchmarks can time any of them. Analysis
+ * and running are left to {@link engine.Engine}, as on the command line.
+ */
+final class Pipeline {
+
+    private Pipeline() {
+    }
+
+    /** Output that formats everything printed, as printing to a file does, and then drops it. */
+    static BufferedOutput discardingOutput() {
+        return new BufferedOutput(new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    static List<Statement> parse(String source) {
+        return new ParserImplementation(new LexerImplementation(source).tokenStream()).parse();
+    }
+}
@@ -0,0 +1,43 @@
+package benchmark;
+
+import engine.Engine;
+import org.openjdk.jmh.annotations.*;
+import output.BufferedOutput;
+import statement.Statement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an already analyzed program in each mode, including whatever compiling the mode does first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RunBenchmark {
+
+    @Param
+    Corpus corpus;
+
+    @Param({"10000"})
+    int size;
+
+    @Param({"interpret", "compile-run", "jvm", "closure", "nodes"})
+    String mode;
+
+    private Engine engine;
+    private List<Statement> statements;
+
+    @Setup
+    public void analyze() {
+        engine = Engine.forMode(mode);
+        statements = Engine.analyze(Pipeline.parse(corpus.program(size)));
+    }
+
+    @Benchmark
+    public void run() {
+        BufferedOutput out = Pipeline.discardingOutput();
+        engine.run(statements, out);
+        out.flush();
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import cache.AstCache;
+import cache.impl.AstCacheImplementation;
+import lexer.impl.StreamingLexerImplementation;
+import org.openjdk.jmh.annotations.*;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What the command line does before analyzing a program read from a file: lexing and parsing it with no cache,
+ * doing that and storing the result on a miss, or hashing the file and loading what it parsed to on a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    @Param
+    Corpus corpus;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private Path directory;
+    private Path source;
+    private AstCache cache;
+
+    @Setup
+    public void write() throws IOException {
+        directory = Files.createTempDirectory("startup");
+        source = directory.resolve("program.ps");
+        Files.write(source, corpus.program(size).getBytes(StandardCharsets.UTF_8));
+        cache = new AstCacheImplementation(directory.resolve("cache"));
+        cache.store(cache.key(source), parse());
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Statement> cold() throws IOException {
+        return parse();
+    }
+
+    @Benchmark
+    public List<Statement> miss() throws IOException {
+        List<Statement> statements = parse();
+        cache.store(cache.key(source), statements);
+        return statements;
+    }
+
+    @Benchmark
+    public List<Statement> hit() throws IOException {
+        return cache.load(cache.key(source));
+    }
+
+    private List<Statement> parse() throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(source.toFile()), StandardCharsets.UTF_8)) {
+            return new ParserImplementation(new StreamingLexerImplementation(reader).tokenStream()).parse();
+        }
+    }
+}
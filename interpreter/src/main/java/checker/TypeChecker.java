@@ -0,0 +1,11 @@
+package checker;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface TypeChecker {
+
+    /** Fails on the first type error in the program, before any of it runs. Statements must be resolved first. */
+    void check(List<Statement> statements);
+}
@@ -0,0 +1,203 @@
+package checker;
+
+import exception.TypeException;
+import expression.Expression;
+import expression.impl.*;
+import statement.Statement;
+import statement.impl.*;
+import token.Symbol;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static token.TokenType.*;
+
+/**
+ * Checks the static types the resolver inferred. An expression typed T holds a T or null, null being what a
+ * variable declared without a value holds. Only errors that would happen every time the code runs are
+ * reported, with the same message the interpreter would give. Declarations and assignments that are proven
+ * right are marked verified so the interpreter can skip checking them again.
+ *
+ * Every expression visit answers whether the value is known not to be null.
+ */
+public class TypeCheckerImplementation implements TypeChecker, ExpressionVisitor, StatementVisitor {
+
+    private List<Map<Symbol, Declaration>> scopes = new ArrayList<>();
+
+    @Override
+    public void check(List<Statement> statements) {
+        scopes.add(new HashMap<>());
+        checkStatements(statements);
+        scopes.remove(scopes.size() - 1);
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        check(expression.getLeft());
+        check(expression.getRight());
+
+        if (expression.getOperator().getType() != PLUS
+                && (!isNumber(expression.getLeft()) || !isNumber(expression.getRight()))) {
+            throw new TypeException("Operands must be numbers.", expression.getOperator());
+        }
+        return true;
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return check(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        return expression.getValue() != null;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        check(expression.getRight());
+
+        if (expression.getOperator().getType() == MINUS && !isNumber(expression.getRight())) {
+            throw new TypeException("Operand must be a number.", expression.getOperator());
+        }
+        return true;
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        Declaration declaration = lookup(expression.getSymbol());
+        return declaration != null && declaration.nonNull;
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        boolean nonNull = check(expression.getExpression());
+        Declaration declaration = lookup(expression.getSymbol());
+        // Left to fail at runtime.
+        if (declaration == null) return true;
+
+        VariableStatement statement = declaration.statement;
+        if (statement.getKeyWord().getType() != LET) {
+            throw new TypeException("Constant cannot be changed", expression.getName());
+        }
+        if (statement.getType() != null) {
+            TokenType type = expression.getExpression().getStaticType();
+            if (type != null && type != statement.getType()) {
+                throw new TypeException("Expected a " + describe(statement.getType()).toLowerCase(), expression.getName());
+            }
+            // Null never gets through a typed assignment, so the runtime check stays for maybe-null values.
+            expression.setVerified(type == statement.getType() && nonNull);
+        } else {
+            expression.setVerified(true);
+        }
+        return true;
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        check(expression.getLeft());
+        check(expression.getRight());
+        return true;
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        check(statement.getExpression());
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        check(statement.getExpression());
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        boolean nonNull = false;
+        boolean verified = true;
+        if (statement.getExpression() != null) {
+            nonNull = check(statement.getExpression());
+            TokenType type = statement.getExpression().getStaticType();
+            if (statement.getType() != null && type != statement.getType()) {
+                // A declaration takes null whatever its type, so only a value that is surely there can be wrong.
+                if (type != null && nonNull) {
+                    throw new TypeException("Expected a " + describe(statement.getType()), statement.getName());
+                }
+                verified = false;
+            }
+        }
+        statement.setVerified(verified);
+        // Without a type, later assignments can still store null.
+        boolean stays = statement.getType() != null || statement.getKeyWord().getType() != LET;
+        scopes.get(scopes.size() - 1).put(statement.getSymbol(), new Declaration(statement, nonNull && stays));
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        scopes.add(new HashMap<>());
+        checkStatements(statement.getStatement());
+        scopes.remove(scopes.size() - 1);
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        check(statement.getCondition());
+        statement.getThenDo().accept(this);
+        if (statement.getElseDo() != null) {
+            statement.getElseDo().accept(this);
+        }
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        check(statement.getCondition());
+        statement.getBody().accept(this);
+    }
+
+    private void checkStatements(List<Statement> statements) {
+        for (Statement statement : statements) {
+            statement.accept(this);
+        }
+    }
+
+    private boolean check(Expression expression) {
+        return (boolean) expression.accept(this);
+    }
+
+    // Unknown types are given the benefit of the doubt and checked at runtime.
+    private boolean isNumber(Expression expression) {
+        TokenType type = expression.getStaticType();
+        return type == null || type == NUMBER_TYPE;
+    }
+
+    private String describe(TokenType type) {
+        switch (type) {
+            case BOOLEAN: return "Boolean";
+            case NUMBER_TYPE: return "Number";
+            default: return "String";
+        }
+    }
+
+    // Same binding as the resolver: the innermost declaration of the name seen so far.
+    private Declaration lookup(Symbol name) {
+        for (int i = scopes.size() - 1; i >= 0; i--) {
+            Declaration declaration = scopes.get(i).get(name);
+            if (declaration != null) return declaration;
+        }
+        return null;
+    }
+
+    private static class Declaration {
+        private VariableStatement statement;
+        private boolean nonNull;
+
+        private Declaration(VariableStatement statement, boolean nonNull) {
+            this.statement = statement;
+            this.nonNull = nonNull;
+        }
+    }
+}
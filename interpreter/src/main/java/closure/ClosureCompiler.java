@@ -0,0 +1,11 @@
+package closure;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface ClosureCompiler {
+
+    /** Turns a resolved and type-checked program into a tree of closures, ready to run. */
+    Runnable compile(List<Statement> statements);
+}
@@ -0,0 +1,371 @@
+package closure;
+
+import environment.Operations;
+import exception.InterpretException;
+import expression.Expression;
+import expression.impl.*;
+import output.Output;
+import scope.ScopeDescriptor;
+import statement.Statement;
+import statement.impl.*;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static token.TokenType.NUMBER_TYPE;
+
+/**
+ * Compiles every node once into a closure specialized for its operator and for what its operands are
+ * known to be, so running the program involves neither the visitors nor a switch on the operator.
+ *
+ * Variables are held the way the JVM backend holds them: a number variable declared with a value that is
+ * always a number never holds null, so it lives unboxed in the frame's double array. Each declaration gets
+ * its own slot in the frame. Expression visits return a {@link DoubleNode} when the expression produces an
+ * unboxed number and an {@link ExpressionNode} otherwise; statement visits leave their node in
+ * {@link #compiled}.
+ */
+public class ClosureCompilerImplementation implements ClosureCompiler, ExpressionVisitor, StatementVisitor {
+
+    private List<Variable[]> scopes = new ArrayList<>();
+    private int slots = 0;
+    private StatementNode compiled;
+    private final Output output;
+
+    public ClosureCompilerImplementation(Output output) {
+        this.output = output;
+    }
+
+    @Override
+    public Runnable compile(List<Statement> statements) {
+        scopes.add(new Variable[ScopeDescriptor.of(statements).size()]);
+        StatementNode program = sequence(statements);
+        scopes.remove(scopes.size() - 1);
+
+        int size = slots;
+        return () -> program.execute(new Frame(size));
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        int line = expression.getOperator().getLine();
+
+        if (isDouble(expression.getLeft()) && isDouble(expression.getRight())) {
+            DoubleNode left = compileDouble(expression.getLeft());
+            DoubleNode right = compileDouble(expression.getRight());
+            switch (expression.getOperator().getType()) {
+                case PLUS: return (DoubleNode) frame -> left.evaluate(frame) + right.evaluate(frame);
+                case MINUS: return (DoubleNode) frame -> left.evaluate(frame) - right.evaluate(frame);
+                case STAR: return (DoubleNode) frame -> left.evaluate(frame) * right.evaluate(frame);
+                case SLASH: return (DoubleNode) frame -> left.evaluate(frame) / right.evaluate(frame);
+                default:
+                    ConditionNode condition = compare(expression, left, right);
+                    return (ExpressionNode) frame -> condition.test(frame);
+            }
+        }
+
+        ExpressionNode left = compileBoxed(expression.getLeft());
+        ExpressionNode right = compileBoxed(expression.getRight());
+        switch (expression.getOperator().getType()) {
+            case PLUS: return (ExpressionNode) frame -> Operations.add(left.evaluate(frame), right.evaluate(frame));
+            case MINUS: return (ExpressionNode) frame -> Operations.subtract(left.evaluate(frame), right.evaluate(frame), line);
+            case STAR: return (ExpressionNode) frame -> Operations.multiply(left.evaluate(frame), right.evaluate(frame), line);
+            case SLASH: return (ExpressionNode) frame -> Operations.divide(left.evaluate(frame), right.evaluate(frame), line);
+            case GREATER: return (ExpressionNode) frame -> Operations.greater(left.evaluate(frame), right.evaluate(frame), line);
+            case GREATER_EQUAL: return (ExpressionNode) frame -> Operations.greaterEqual(left.evaluate(frame), right.evaluate(frame), line);
+            case LESS: return (ExpressionNode) frame -> Operations.less(left.evaluate(frame), right.evaluate(frame), line);
+            case LESS_EQUAL: return (ExpressionNode) frame -> Operations.lessEqual(left.evaluate(frame), right.evaluate(frame), line);
+            default: throw new IllegalStateException("Not a binary operator: " + expression.getOperator().getType());
+        }
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return expression.getExpression().accept(this);
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        Object value = expression.getValue();
+        if (value instanceof Double) {
+            double number = (double) value;
+            return (DoubleNode) frame -> number;
+        }
+        return (ExpressionNode) frame -> value;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        if (isDouble(expression.getRight())) {
+            DoubleNode right = compileDouble(expression.getRight());
+            return (DoubleNode) frame -> -right.evaluate(frame);
+        }
+
+        ExpressionNode right = compileBoxed(expression.getRight());
+        int line = expression.getOperator().getLine();
+        return (ExpressionNode) frame -> Operations.negate(right.evaluate(frame), line);
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        if (!expression.isResolved()) {
+            int line = expression.getName().getLine();
+            return (ExpressionNode) frame -> {
+                throw new InterpretException("Variable not found", line);
+            };
+        }
+
+        int slot = variable(expression.getDepth(), expression.getSlot()).slot;
+        if (isDouble(expression)) return (DoubleNode) frame -> frame.numbers[slot];
+        return (ExpressionNode) frame -> frame.values[slot];
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        int line = expression.getName().getLine();
+
+        if (!expression.isResolved()) {
+            ExpressionNode value = compileBoxed(expression.getExpression());
+            String message = "Undefined variable '" + expression.getSymbol().getName() + "'.";
+            return (ExpressionNode) frame -> {
+                value.evaluate(frame);
+                throw new InterpretException(message, line);
+            };
+        }
+
+        Variable variable = variable(expression.getDepth(), expression.getSlot());
+        int slot = variable.slot;
+        if (variable.number && expression.isVerified() && isDouble(expression.getExpression())) {
+            DoubleNode value = compileDouble(expression.getExpression());
+            return (DoubleNode) frame -> frame.numbers[slot] = value.evaluate(frame);
+        }
+
+        ExpressionNode value = checked(compileBoxed(expression.getExpression()), expression.isVerified(), variable, line);
+        if (variable.number) {
+            // Only a number gets through the check into a number variable.
+            return (DoubleNode) frame -> frame.numbers[slot] = (double) value.evaluate(frame);
+        }
+        return (ExpressionNode) frame -> frame.values[slot] = value.evaluate(frame);
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        ConditionNode condition = compileCondition(expression);
+        return (ExpressionNode) frame -> condition.test(frame);
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        Object node = statement.getExpression().accept(this);
+        if (node instanceof DoubleNode) {
+            DoubleNode expression = (DoubleNode) node;
+            compiled = frame -> expression.evaluate(frame);
+        } else {
+            ExpressionNode expression = (ExpressionNode) node;
+            compiled = frame -> expression.evaluate(frame);
+        }
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        Object node = statement.getExpression().accept(this);
+        if (node instanceof DoubleNode) {
+            DoubleNode expression = (DoubleNode) node;
+            compiled = frame -> output.println(expression.evaluate(frame));
+        } else {
+            ExpressionNode expression = (ExpressionNode) node;
+            compiled = frame -> output.println(expression.evaluate(frame));
+        }
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        Expression initializer = statement.getExpression();
+        boolean number = statement.getType() == NUMBER_TYPE && initializer != null && isDouble(initializer);
+        Variable variable = new Variable(slots++, number, statement.getKeyWord().getType(), statement.getType());
+        int slot = variable.slot;
+
+        if (number) {
+            DoubleNode value = compileDouble(initializer);
+            compiled = frame -> frame.numbers[slot] = value.evaluate(frame);
+        } else if (initializer == null) {
+            compiled = frame -> frame.values[slot] = null;
+        } else if (statement.isVerified()) {
+            ExpressionNode value = compileBoxed(initializer);
+            compiled = frame -> frame.values[slot] = value.evaluate(frame);
+        } else {
+            ExpressionNode value = compileBoxed(initializer);
+            TokenType type = statement.getType();
+            int line = statement.getName().getLine();
+            compiled = frame -> frame.values[slot] = Operations.declare(value.evaluate(frame), type, line);
+        }
+        // Declared only now, so the initializer still sees whatever the name meant before.
+        scopes.get(scopes.size() - 1)[statement.getSlot()] = variable;
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        // A block that declares nothing was resolved into the enclosing scope.
+        if (statement.getScope().size() == 0) {
+            compiled = sequence(statement.getStatement());
+            return;
+        }
+        scopes.add(new Variable[statement.getScope().size()]);
+        StatementNode block = sequence(statement.getStatement());
+        scopes.remove(scopes.size() - 1);
+        compiled = block;
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        ConditionNode condition = compileCondition(statement.getCondition());
+        StatementNode thenDo = compile(statement.getThenDo());
+
+        if (statement.getElseDo() == null) {
+            compiled = frame -> {
+                if (condition.test(frame)) thenDo.execute(frame);
+            };
+            return;
+        }
+        StatementNode elseDo = compile(statement.getElseDo());
+        compiled = frame -> {
+            if (condition.test(frame)) {
+                thenDo.execute(frame);
+            } else {
+                elseDo.execute(frame);
+            }
+        };
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        ConditionNode condition = compileCondition(statement.getCondition());
+        StatementNode body = compile(statement.getBody());
+        compiled = frame -> {
+            while (condition.test(frame)) body.execute(frame);
+        };
+    }
+
+    private StatementNode compile(Statement statement) {
+        statement.accept(this);
+        return compiled;
+    }
+
+    private StatementNode sequence(List<Statement> statements) {
+        StatementNode[] nodes = new StatementNode[statements.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compile(statements.get(i));
+        }
+        if (nodes.length == 1) return nodes[0];
+
+        return frame -> {
+            for (StatementNode node : nodes) {
+                node.execute(frame);
+            }
+        };
+    }
+
+    private DoubleNode compileDouble(Expression expression) {
+        return (DoubleNode) expression.accept(this);
+    }
+
+    private ExpressionNode compileBoxed(Expression expression) {
+        Object node = expression.accept(this);
+        if (node instanceof DoubleNode) {
+            DoubleNode number = (DoubleNode) node;
+            return frame -> number.evaluate(frame);
+        }
+        return (ExpressionNode) node;
+    }
+
+    // Conditions on two numbers, and and or of them, are tested without boxing the result.
+    private ConditionNode compileCondition(Expression condition) {
+        while (condition instanceof GroupingExpression) {
+            condition = ((GroupingExpression) condition).getExpression();
+        }
+        if (condition instanceof LogicalExpression) {
+            LogicalExpression logical = (LogicalExpression) condition;
+            ConditionNode left = compileCondition(logical.getLeft());
+            ConditionNode right = compileCondition(logical.getRight());
+            if (logical.getOperator().getType() == TokenType.AND) return frame -> left.test(frame) && right.test(frame);
+            return frame -> left.test(frame) || right.test(frame);
+        }
+        if (condition instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) condition;
+            if (isComparison(binary.getOperator().getType()) && isDouble(binary.getLeft()) && isDouble(binary.getRight())) {
+                return compare(binary, compileDouble(binary.getLeft()), compileDouble(binary.getRight()));
+            }
+        }
+
+        ExpressionNode value = compileBoxed(condition);
+        return frame -> Operations.isTruthy(value.evaluate(frame));
+    }
+
+    private ConditionNode compare(BinaryExpression expression, DoubleNode left, DoubleNode right) {
+        switch (expression.getOperator().getType()) {
+            case GREATER: return frame -> left.evaluate(frame) > right.evaluate(frame);
+            case GREATER_EQUAL: return frame -> left.evaluate(frame) >= right.evaluate(frame);
+            case LESS: return frame -> left.evaluate(frame) < right.evaluate(frame);
+            case LESS_EQUAL: return frame -> left.evaluate(frame) <= right.evaluate(frame);
+            default: throw new IllegalStateException("Not a comparison: " + expression.getOperator().getType());
+        }
+    }
+
+    private ExpressionNode checked(ExpressionNode value, boolean verified, Variable variable, int line) {
+        if (verified) return value;
+        return frame -> Operations.assign(value.evaluate(frame), variable.keyword, variable.type, line);
+    }
+
+    /** Whether the expression compiles to a {@link DoubleNode}. */
+    private boolean isDouble(Expression expression) {
+        if (expression instanceof LiteralExpression) return ((LiteralExpression) expression).getValue() instanceof Double;
+        if (expression instanceof GroupingExpression) return isDouble(((GroupingExpression) expression).getExpression());
+        if (expression instanceof UnaryExpression) return isDouble(((UnaryExpression) expression).getRight());
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return !isComparison(binary.getOperator().getType()) && isDouble(binary.getLeft()) && isDouble(binary.getRight());
+        }
+        if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return variable.isResolved() && variable(variable.getDepth(), variable.getSlot()).number;
+        }
+        if (expression instanceof AssigmentExpression) {
+            AssigmentExpression assignment = (AssigmentExpression) expression;
+            return assignment.isResolved() && variable(assignment.getDepth(), assignment.getSlot()).number;
+        }
+        return false;
+    }
+
+    private boolean isComparison(TokenType operator) {
+        switch (operator) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Variable variable(int depth, int slot) {
+        return scopes.get(scopes.size() - 1 - depth)[slot];
+    }
+
+    private static class Variable {
+        private int slot;
+        // Held unboxed in the frame's numbers rather than in its values.
+        private boolean number;
+        private TokenType keyword;
+        private TokenType type;
+
+        private Variable(int slot, boolean number, TokenType keyword, TokenType type) {
+            this.slot = slot;
+            this.number = number;
+            this.keyword = keyword;
+            this.type = type;
+        }
+    }
+}
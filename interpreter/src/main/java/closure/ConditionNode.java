@@ -0,0 +1,6 @@
+package closure;
+
+interface ConditionNode {
+
+    boolean test(Frame frame);
+}
@@ -0,0 +1,7 @@
+package closure;
+
+/** An expression that always produces a number, without boxing it. */
+interface DoubleNode {
+
+    double evaluate(Frame frame);
+}
@@ -0,0 +1,6 @@
+package closure;
+
+interface ExpressionNode {
+
+    Object evaluate(Frame frame);
+}
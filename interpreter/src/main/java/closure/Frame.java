@@ -0,0 +1,13 @@
+package closure;
+
+/** Variables of a running program, each in its own slot of one of the two arrays depending on how it is held. */
+class Frame {
+
+    final double[] numbers;
+    final Object[] values;
+
+    Frame(int size) {
+        this.numbers = new double[size];
+        this.values = new Object[size];
+    }
+}
@@ -0,0 +1,6 @@
+package closure;
+
+interface StatementNode {
+
+    void execute(Frame frame);
+}
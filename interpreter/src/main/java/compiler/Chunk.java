@@ -0,0 +1,48 @@
+package compiler;
+
+import token.TokenType;
+
+/**
+ * A compiled program. Every variable gets its own slot in one flat array for the whole program, so the
+ * keyword and type of each slot are known up front.
+ */
+public class Chunk {
+
+    private int[] code;
+    private Object[] constants;
+    private double[] numbers;
+    private TokenType[] keywords;
+    private TokenType[] types;
+
+    public Chunk(int[] code, Object[] constants, double[] numbers, TokenType[] keywords, TokenType[] types) {
+        this.code = code;
+        this.constants = constants;
+        this.numbers = numbers;
+        this.keywords = keywords;
+        this.types = types;
+    }
+
+    public int[] getCode() {
+        return code;
+    }
+
+    public Object[] getConstants() {
+        return constants;
+    }
+
+    public double[] getNumbers() {
+        return numbers;
+    }
+
+    public int getSlotCount() {
+        return keywords.length;
+    }
+
+    public TokenType getKeyword(int slot) {
+        return keywords[slot];
+    }
+
+    public TokenType getType(int slot) {
+        return types[slot];
+    }
+}
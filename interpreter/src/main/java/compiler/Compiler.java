@@ -0,0 +1,11 @@
+package compiler;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface Compiler {
+
+    /** Lowers a resolved and type-checked program to bytecode. */
+    Chunk compile(List<Statement> statements);
+}
@@ -0,0 +1,348 @@
+package compiler;
+
+import expression.Expression;
+import expression.impl.*;
+import scope.ScopeDescriptor;
+import statement.Statement;
+import statement.impl.*;
+import token.Token;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static compiler.OpCode.*;
+import static token.TokenType.AND;
+import static token.TokenType.NUMBER_TYPE;
+
+/**
+ * Compiles to a stack machine. Expressions the resolver typed as numbers are computed on unboxed doubles,
+ * the same as the tree-walking interpreter does, and only boxed when they are stored, printed or mixed
+ * with other values.
+ *
+ * The frames the resolver laid out are flattened: each scope gets a run of slots starting where its
+ * enclosing scope's slots end, so a resolved depth and slot turn into a single slot number. Every
+ * expression visit answers whether it left an unboxed number on the stack.
+ */
+public class CompilerImplementation implements Compiler, ExpressionVisitor, StatementVisitor {
+
+    private int[] code = new int[256];
+    private int size = 0;
+    private List<Object> constants = new ArrayList<>();
+    private Map<Object, Integer> constantIndexes = new HashMap<>();
+    private double[] numbers = new double[16];
+    private int numberCount = 0;
+    private Map<Double, Integer> numberIndexes = new HashMap<>();
+    private List<TokenType> keywords = new ArrayList<>();
+    private List<TokenType> types = new ArrayList<>();
+    // First slot of every scope being compiled, innermost last.
+    private List<Integer> bases = new ArrayList<>();
+
+    @Override
+    public Chunk compile(List<Statement> statements) {
+        beginScope(ScopeDescriptor.of(statements));
+        compileStatements(statements);
+        endScope();
+        emit(RETURN);
+
+        return new Chunk(Arrays.copyOf(code, size), constants.toArray(), Arrays.copyOf(numbers, numberCount),
+                keywords.toArray(new TokenType[0]), types.toArray(new TokenType[0]));
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        Token operator = expression.getOperator();
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+
+        if (left.getStaticType() == NUMBER_TYPE && right.getStaticType() == NUMBER_TYPE) {
+            int boxed = (compileNumber(left) ? 0 : LEFT) | (compileNumber(right) ? 0 : RIGHT);
+            if (boxed != 0) emit(UNBOX, boxed, boxedOperation(operator), operator.getLine());
+            emit(numberOperation(operator));
+            return !isComparison(operator);
+        }
+
+        compileBoxed(left);
+        compileBoxed(right);
+        emit(boxedOperation(operator), operator.getLine());
+        return false;
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return compile(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        emit(CONSTANT, constant(expression.getValue()));
+        return false;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        Token operator = expression.getOperator();
+
+        if (expression.getRight().getStaticType() == NUMBER_TYPE) {
+            if (!compileNumber(expression.getRight())) emit(UNBOX_OPERAND, operator.getLine());
+            emit(NEGATE_NUMBER);
+            return true;
+        }
+
+        compileBoxed(expression.getRight());
+        emit(NEGATE, operator.getLine());
+        return false;
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        if (!expression.isResolved()) {
+            emit(FAIL, constant("Variable not found"), expression.getName().getLine());
+            return false;
+        }
+        emit(LOAD, slotOf(expression.getDepth(), expression.getSlot()));
+        return false;
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        compileBoxed(expression.getExpression());
+
+        if (!expression.isResolved()) {
+            String message = "Undefined variable '" + expression.getSymbol().getName() + "'.";
+            emit(FAIL, constant(message), expression.getName().getLine());
+            return false;
+        }
+
+        int slot = slotOf(expression.getDepth(), expression.getSlot());
+        if (expression.isVerified()) {
+            emit(STORE, slot);
+        } else {
+            emit(ASSIGN, slot, expression.getName().getLine());
+        }
+        return false;
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        List<Integer> whenFalse = new ArrayList<>();
+        compileJumpIfFalse(expression, whenFalse);
+        emit(CONSTANT, constant(true));
+        int end = emitJump(JUMP);
+        whenFalse.forEach(this::patchJump);
+        emit(CONSTANT, constant(false));
+        patchJump(end);
+        return false;
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        compile(statement.getExpression());
+        emit(POP);
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        emit(compile(statement.getExpression()) ? PRINT_NUMBER : PRINT);
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        if (statement.getExpression() != null) {
+            compileBoxed(statement.getExpression());
+        } else {
+            emit(CONSTANT, constant(null));
+        }
+
+        int slot = slotOf(0, statement.getSlot());
+        if (statement.getExpression() == null || statement.isVerified()) {
+            emit(DEFINE, slot);
+        } else {
+            emit(DEFINE_CHECKED, slot, statement.getName().getLine());
+        }
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        // A block that declares nothing was resolved into the enclosing scope.
+        if (statement.getScope().size() == 0) {
+            compileStatements(statement.getStatement());
+            return;
+        }
+        beginScope(statement.getScope());
+        compileStatements(statement.getStatement());
+        endScope();
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        List<Integer> elseJumps = new ArrayList<>();
+        compileJumpIfFalse(statement.getCondition(), elseJumps);
+        statement.getThenDo().accept(this);
+
+        if (statement.getElseDo() == null) {
+            elseJumps.forEach(this::patchJump);
+            return;
+        }
+        int endJump = emitJump(JUMP);
+        elseJumps.forEach(this::patchJump);
+        statement.getElseDo().accept(this);
+        patchJump(endJump);
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        int start = size;
+        List<Integer> exitJumps = new ArrayList<>();
+        compileJumpIfFalse(statement.getCondition(), exitJumps);
+        statement.getBody().accept(this);
+        emit(JUMP, start);
+        exitJumps.forEach(this::patchJump);
+    }
+
+    /**
+     * Jumps when the condition is not truthy, adding the jumps to patch to the list. The operands of and and
+     * or are tested one by one, so the right side only runs when the left one does not decide.
+     */
+    private void compileJumpIfFalse(Expression condition, List<Integer> jumps) {
+        if (condition instanceof LogicalExpression) {
+            LogicalExpression logical = (LogicalExpression) condition;
+            if (logical.getOperator().getType() == AND) {
+                compileJumpIfFalse(logical.getLeft(), jumps);
+                compileJumpIfFalse(logical.getRight(), jumps);
+                return;
+            }
+            List<Integer> tryRight = new ArrayList<>();
+            compileJumpIfFalse(logical.getLeft(), tryRight);
+            int skipRight = emitJump(JUMP);
+            tryRight.forEach(this::patchJump);
+            compileJumpIfFalse(logical.getRight(), jumps);
+            patchJump(skipRight);
+            return;
+        }
+        compileBoxed(condition);
+        jumps.add(emitJump(JUMP_IF_FALSE));
+    }
+
+    private void compileStatements(List<Statement> statements) {
+        for (Statement statement : statements) {
+            statement.accept(this);
+        }
+    }
+
+    private boolean compile(Expression expression) {
+        return (boolean) expression.accept(this);
+    }
+
+    private void compileBoxed(Expression expression) {
+        if (compile(expression)) emit(BOX);
+    }
+
+    // Number literals can go on the stack unboxed too, when that is what is wanted.
+    private boolean compileNumber(Expression expression) {
+        if (expression instanceof LiteralExpression && ((LiteralExpression) expression).getValue() instanceof Double) {
+            emit(NUMBER, number((double) ((LiteralExpression) expression).getValue()));
+            return true;
+        }
+        return compile(expression);
+    }
+
+    private int boxedOperation(Token operator) {
+        switch (operator.getType()) {
+            case PLUS: return ADD;
+            case MINUS: return SUBTRACT;
+            case STAR: return MULTIPLY;
+            case SLASH: return DIVIDE;
+            case GREATER: return GREATER;
+            case GREATER_EQUAL: return GREATER_EQUAL;
+            case LESS: return LESS;
+            case LESS_EQUAL: return LESS_EQUAL;
+            default: throw new IllegalStateException("Not a binary operator: " + operator.getType());
+        }
+    }
+
+    private int numberOperation(Token operator) {
+        switch (operator.getType()) {
+            case PLUS: return ADD_NUMBER;
+            case MINUS: return SUBTRACT_NUMBER;
+            case STAR: return MULTIPLY_NUMBER;
+            case SLASH: return DIVIDE_NUMBER;
+            case GREATER: return GREATER_NUMBER;
+            case GREATER_EQUAL: return GREATER_EQUAL_NUMBER;
+            case LESS: return LESS_NUMBER;
+            case LESS_EQUAL: return LESS_EQUAL_NUMBER;
+            default: throw new IllegalStateException("Not a binary operator: " + operator.getType());
+        }
+    }
+
+    private boolean isComparison(Token operator) {
+        switch (operator.getType()) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void beginScope(ScopeDescriptor scope) {
+        bases.add(keywords.size());
+        for (int slot = 0; slot < scope.size(); slot++) {
+            keywords.add(scope.getKeyword(slot));
+            types.add(scope.getType(slot));
+        }
+    }
+
+    private void endScope() {
+        bases.remove(bases.size() - 1);
+    }
+
+    private int slotOf(int depth, int slot) {
+        return bases.get(bases.size() - 1 - depth) + slot;
+    }
+
+    private int constant(Object value) {
+        Integer index = constantIndexes.get(value);
+        if (index == null) {
+            index = constants.size();
+            constants.add(value);
+            constantIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private int number(double value) {
+        Integer index = numberIndexes.get(value);
+        if (index == null) {
+            if (numberCount == numbers.length) numbers = Arrays.copyOf(numbers, numberCount * 2);
+            index = numberCount;
+            numbers[numberCount++] = value;
+            numberIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private int emitJump(int instruction) {
+        emit(instruction, -1);
+        return size - 1;
+    }
+
+    // Points the jump whose target is at this offset to the next instruction.
+    private void patchJump(int offset) {
+        code[offset] = size;
+    }
+
+    private void emit(int... words) {
+        if (size + words.length > code.length) code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+        for (int word : words) {
+            code[size++] = word;
+        }
+    }
+}
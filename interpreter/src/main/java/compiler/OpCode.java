@@ -0,0 +1,71 @@
+package compiler;
+
+/**
+ * Instructions of the bytecode, each followed in the code array by its operands. Values on the stack are
+ * either boxed objects or unboxed doubles; the compiler always knows which, so there is no tag.
+ */
+public final class OpCode {
+
+    private OpCode() {
+    }
+
+    /** constant: pushes a constant from the pool. */
+    public static final int CONSTANT = 0;
+    /** number: pushes an unboxed number from the pool. */
+    public static final int NUMBER = 1;
+    /** Boxes the unboxed number on top. */
+    public static final int BOX = 2;
+    /** operands, operator, line: unboxes the number operands flagged in the mask, see {@link #LEFT}. */
+    public static final int UNBOX = 3;
+    /** line: unboxes the number operand of a negation. */
+    public static final int UNBOX_OPERAND = 4;
+    public static final int POP = 5;
+
+    /** slot: pushes the value of a variable. */
+    public static final int LOAD = 6;
+    /** slot: stores the value on top, leaving it there. Only for verified assignments. */
+    public static final int STORE = 7;
+    /** slot, line: stores the value on top after checking the variable can take it, leaving it there. */
+    public static final int ASSIGN = 8;
+    /** slot: pops the value on top into a variable being declared. */
+    public static final int DEFINE = 9;
+    /** slot, line: same, after checking the value has the declared type. */
+    public static final int DEFINE_CHECKED = 10;
+
+    // Operations on boxed values, followed by the line of the operator.
+    public static final int ADD = 11;
+    public static final int SUBTRACT = 12;
+    public static final int MULTIPLY = 13;
+    public static final int DIVIDE = 14;
+    public static final int GREATER = 15;
+    public static final int GREATER_EQUAL = 16;
+    public static final int LESS = 17;
+    public static final int LESS_EQUAL = 18;
+    public static final int NEGATE = 19;
+
+    // The same on unboxed numbers. Comparisons push a boxed Boolean.
+    public static final int ADD_NUMBER = 20;
+    public static final int SUBTRACT_NUMBER = 21;
+    public static final int MULTIPLY_NUMBER = 22;
+    public static final int DIVIDE_NUMBER = 23;
+    public static final int GREATER_NUMBER = 24;
+    public static final int GREATER_EQUAL_NUMBER = 25;
+    public static final int LESS_NUMBER = 26;
+    public static final int LESS_EQUAL_NUMBER = 27;
+    public static final int NEGATE_NUMBER = 28;
+
+    public static final int PRINT = 29;
+    /** target: jumps to an offset in the code. */
+    public static final int JUMP = 30;
+    /** target: pops the value on top and jumps unless it is truthy. */
+    public static final int JUMP_IF_FALSE = 31;
+    /** message, line: fails with a message from the constant pool. */
+    public static final int FAIL = 32;
+    public static final int RETURN = 33;
+    /** Prints the unboxed number on top. */
+    public static final int PRINT_NUMBER = 34;
+
+    // Mask bits for UNBOX.
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+}
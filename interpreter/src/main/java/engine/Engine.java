@@ -0,0 +1,78 @@
+package engine;
+
+import checker.TypeCheckerImplementation;
+import closure.ClosureCompilerImplementation;
+import compiler.CompilerImplementation;
+import interpreter.InterpreterImplementation;
+import jvm.JvmCompilerImplementation;
+import nodes.NodeCompilerImplementation;
+import optimizer.OptimizerImplementation;
+import output.Output;
+import resolver.ResolverImplementation;
+import statement.Statement;
+import vm.VirtualMachineImplementation;
+
+import java.util.List;
+
+/** The ways of running a program, by the mode that picks them on the command line. */
+public enum Engine {
+
+    INTERPRET("interpret") {
+        @Override
+        public void run(List<Statement> statements, Output out) {
+            new InterpreterImplementation(out).interpret(statements);
+        }
+    },
+    COMPILE_RUN("compile-run") {
+        @Override
+        public void run(List<Statement> statements, Output out) {
+            new VirtualMachineImplementation(out).run(new CompilerImplementation().compile(statements));
+        }
+    },
+    JVM("jvm") {
+        @Override
+        public void run(List<Statement> statements, Output out) {
+            new JvmCompilerImplementation().compile(statements).run(out);
+        }
+    },
+    CLOSURE("closure") {
+        @Override
+        public void run(List<Statement> statements, Output out) {
+            new ClosureCompilerImplementation(out).compile(statements).run();
+        }
+    },
+    NODES("nodes") {
+        @Override
+        public void run(List<Statement> statements, Output out) {
+            new NodeCompilerImplementation(out).compile(statements).run();
+        }
+    };
+
+    private final String mode;
+
+    Engine(String mode) {
+        this.mode = mode;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /** Runs statements that went through {@link #analyze(List)}, printing to the output. */
+    public abstract void run(List<Statement> statements, Output out);
+
+    public static Engine forMode(String mode) {
+        for (Engine engine : values()) {
+            if (engine.mode.equals(mode)) return engine;
+        }
+        throw new RuntimeException("Unknown mode " + mode);
+    }
+
+    /** Everything that happens to the program before it runs, whatever runs it. */
+    public static List<Statement> analyze(List<Statement> statements) {
+        statements = new OptimizerImplementation().optimize(statements);
+        new ResolverImplementation().resolve(statements);
+        new TypeCheckerImplementation().check(statements);
+        return statements;
+    }
+}
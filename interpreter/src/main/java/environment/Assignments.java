@@ -0,0 +1,41 @@
+package environment;
+
+import exception.InterpretException;
+import token.Token;
+import token.TokenType;
+import value.Rope;
+
+import static token.TokenType.*;
+
+public final class Assignments {
+
+    private Assignments() {
+    }
+
+    static void check(TokenType keyword, TokenType type, Token token, Object value) {
+        check(keyword, type, token.getLine(), value);
+    }
+
+    /** Fails unless a variable declared with this keyword and type can take the value. */
+    public static void check(TokenType keyword, TokenType type, int line, Object value) {
+        if(keyword == LET){
+            if (type == BOOLEAN){
+                if (!(value instanceof Boolean)){
+                    throw new InterpretException("Expected a boolean", line);
+                }
+            }
+            else if (type == NUMBER_TYPE){
+                if (!(value instanceof Number)) {
+                    throw new InterpretException("Expected a number", line);
+                }
+            }
+            else if (type == STRING_TYPE){
+                if (!Rope.isString(value)){
+                    throw new InterpretException("Expected a string", line);
+                }
+            }
+        } else {
+            throw new InterpretException("Constant cannot be changed", line);
+        }
+    }
+}
@@ -1,11 +0,0 @@
-package environment;
-
-import token.TokenType;
-
-public interface Declaration {
-
-    TokenType getKeyword();
-    TokenType getType();
-    Object getValue();
-    void setValue(Object value);
-}
@@ -1,11 +1,14 @@
 package environment;
 
 import token.Token;
-import token.TokenType;
 
 public interface Environment {
-    Object get(Token name);
-    void add(String name, TokenType keyword, TokenType type, Object value);
     Environment getEnclosing();
-    void assign(Token name, Object value);
+
+    // Slot of the environment depth levels out, as the resolver bound it.
+    void define(int slot, Object value);
+    Object get(int depth, int slot);
+    void assign(int depth, int slot, Token token, Object value);
+    // Assigns without the checks assign does, for assignments the type checker verified.
+    void set(int depth, int slot, Object value);
 }
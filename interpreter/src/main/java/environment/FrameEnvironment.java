@@ -0,0 +1,57 @@
+package environment;
+
+import scope.ScopeDescriptor;
+import token.Token;
+
+/**
+ * Environment for resolved programs: a plain array of values, with the keyword and type of each slot
+ * coming from the descriptor of the scope, which every frame of that scope shares. EnvironmentBenchmark in the
+ * benchmarks module measures it against the map per scope searched by name that it replaced.
+ */
+public class FrameEnvironment implements Environment {
+
+    private Object[] values;
+    private ScopeDescriptor scope;
+    private Environment enclosing;
+
+    public FrameEnvironment(Environment enclosing, ScopeDescriptor scope) {
+        this.enclosing = enclosing;
+        this.scope = scope;
+        this.values = new Object[scope.size()];
+    }
+
+    @Override
+    public Environment getEnclosing() {
+        return enclosing;
+    }
+
+    @Override
+    public void define(int slot, Object value) {
+        values[slot] = value;
+    }
+
+    @Override
+    public Object get(int depth, int slot) {
+        if (depth > 0) return enclosing.get(depth - 1, slot);
+        return values[slot];
+    }
+
+    @Override
+    public void assign(int depth, int slot, Token token, Object value) {
+        if (depth > 0) {
+            enclosing.assign(depth - 1, slot, token, value);
+            return;
+        }
+        Assignments.check(scope.getKeyword(slot), scope.getType(slot), token, value);
+        values[slot] = value;
+    }
+
+    @Override
+    public void set(int depth, int slot, Object value) {
+        if (depth > 0) {
+            enclosing.set(depth - 1, slot, value);
+            return;
+        }
+        values[slot] = value;
+    }
+}
@@ -0,0 +1,99 @@
+package environment;
+
+import exception.InterpretException;
+import token.TokenType;
+import value.Rope;
+
+import static token.TokenType.*;
+
+/**
+ * Operations on values that are not known to be numbers, and the checks, shared by every engine so they all
+ * behave exactly like the interpreter. Compiled programs call them for whatever does not compile to a few
+ * instructions.
+ */
+public final class Operations {
+
+    private Operations() {
+    }
+
+    public static Object add(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return (double) left + (double) right;
+        }
+        return Rope.concat(left, right);
+    }
+
+    public static Object subtract(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left - (double) right;
+    }
+
+    public static Object multiply(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left * (double) right;
+    }
+
+    public static Object divide(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left / (double) right;
+    }
+
+    public static Object greater(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left > (double) right;
+    }
+
+    public static Object greaterEqual(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left >= (double) right;
+    }
+
+    public static Object less(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left < (double) right;
+    }
+
+    public static Object lessEqual(Object left, Object right, int line) {
+        checkNumberOperands(left, right, line);
+        return (double) left <= (double) right;
+    }
+
+    public static Object negate(Object operand, int line) {
+        checkNumberOperand(operand, line);
+        return -(double) operand;
+    }
+
+    public static boolean isTruthy(Object object) {
+        if (object == null) return false;
+        if (object instanceof Boolean) return (boolean) object;
+        return true;
+    }
+
+    /** Checks the initial value of a declaration, which may be null. */
+    public static Object declare(Object value, TokenType type, int line) {
+        if (value == null) return null;
+        if (type == BOOLEAN && !(value instanceof Boolean)) throw new InterpretException("Expected a Boolean", line);
+        if (type == NUMBER_TYPE && !(value instanceof Number)) throw new InterpretException("Expected a Number", line);
+        if (type == STRING_TYPE && !Rope.isString(value)) throw new InterpretException("Expected a String", line);
+        return value;
+    }
+
+    public static Object assign(Object value, TokenType keyword, TokenType type, int line) {
+        Assignments.check(keyword, type, line, value);
+        return value;
+    }
+
+    public static RuntimeException fail(String message, int line) {
+        return new InterpretException(message, line);
+    }
+
+    public static void checkNumberOperand(Object operand, int line) {
+        if (operand instanceof Double) return;
+        throw new InterpretException("Operand must be a number.", line);
+    }
+
+    public static void checkNumberOperands(Object left, Object right, int line) {
+        if (left instanceof Double && right instanceof Double) return;
+        throw new InterpretException("Operands must be numbers.", line);
+    }
+}
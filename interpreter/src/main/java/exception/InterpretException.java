@@ -3,16 +3,20 @@ package exception;
 import token.Token;
 
 public class InterpretException extends RuntimeException {
-    private Token operator;
     private String message;
+    private int line;
 
     public InterpretException(Token operator, String message) {
-        this.operator = operator;
+        this(message, operator.getLine());
+    }
+
+    public InterpretException(String message, int line) {
         this.message = message;
+        this.line = line;
     }
 
     @Override
     public String getMessage() {
-        return message + " at line " + operator.getLine();
+        return message + " at line " + line;
     }
 }
@@ -0,0 +1,19 @@
+package exception;
+
+import token.Token;
+
+public class TypeException extends RuntimeException {
+
+    private String message;
+    private Token token;
+
+    public TypeException(String message, Token token) {
+        this.message = message;
+        this.token = token;
+    }
+
+    @Override
+    public String getMessage() {
+        return message + " at line " + token.getLine();
+    }
+}
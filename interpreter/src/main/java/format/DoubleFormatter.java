@@ -0,0 +1,238 @@
+package format;
+
+import java.math.BigInteger;
+
+/**
+ * Turns numbers into the text PrintScript prints, writing the characters straight into a buffer.
+ *
+ * The digits are the shortest that parse back to the same double, found with Giulietti's Schubfach
+ * algorithm. The layout is that of {@link Double#toString(double)}, plain between 10^-3 and 10^7 and
+ * computerized scientific notation outside, except that integral values in the plain range print without a
+ * fraction: 3, not 3.0. From 10^7 on they switch to scientific notation like any other value, 1.0E9.
+ */
+public final class DoubleFormatter {
+
+    /** The most characters a number can take. */
+    public static final int MAX_LENGTH = 32;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = C_MIN - 1;
+    // Subnormal significands below this get one more digit to work with.
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = Long.MAX_VALUE;
+
+    // 10^-k as a 126 bit number, for each k: g1 holds the high 63 bits, g0 the low 63.
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    static {
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger g = k <= 0
+                    ? BigInteger.TEN.pow(-k).shiftLeft(shift)
+                    : BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            g = g.add(BigInteger.ONE);
+            G[2 * (k - K_MIN)] = g.shiftRight(63).longValue();
+            G[2 * (k - K_MIN) + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private DoubleFormatter() {
+    }
+
+    public static String toString(double value) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(value, buffer, 0));
+    }
+
+    /** The text of any value, formatting numbers the same way. Fails on null like calling toString on it. */
+    public static String stringify(Object value) {
+        if (value instanceof Double) return toString((double) value);
+        return value.toString();
+    }
+
+    /**
+     * Writes the number at the offset, which needs {@link #MAX_LENGTH} characters of room, and returns the
+     * offset after it.
+     */
+    public static int format(double value, char[] buffer, int offset) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> P - 1) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            return append(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buffer, offset);
+        }
+        if (bits < 0) buffer[offset++] = '-';
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // Integers need no search.
+            if (0 < mq & mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) return layout(f, 0, buffer, offset);
+            }
+            return toDecimal(-mq, c, 0, buffer, offset);
+        }
+        if (t != 0) {
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buffer, offset) : toDecimal(Q_MIN, t, 0, buffer, offset);
+        }
+        buffer[offset++] = '0';
+        return offset;
+    }
+
+    // Finds the shortest decimal in the rounding interval of c 2^q, see figure 7 of the Schubfach paper.
+    private static int toDecimal(int q, long c, int dk, char[] buffer, int offset) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // The interval below a power of two is half as wide.
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G[2 * (k - K_MIN)];
+        long g0 = G[2 * (k - K_MIN) + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // One digit less, when exactly one of its neighbours is in the interval.
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return layout(upin ? sp10 : tp10, k + dk, buffer, offset);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return layout(uin ? s : t, k + dk, buffer, offset);
+        }
+        // Both are in, take the closest, the even one on a tie.
+        long cmp = vb - (s + t << 1);
+        return layout(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, offset);
+    }
+
+    // Rounds g cp 2^-127 to odd.
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // The high 64 bits of the 128 bit product, from four 32 bit partial products. Math.multiplyHigh needs Java 9.
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x0 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long low = x0 * y0;
+        long middle = x1 * y0 + (low >>> 32);
+        long carry = (middle & 0xFFFFFFFFL) + x0 * y1;
+        return x1 * y1 + (middle >> 32) + (carry >> 32);
+    }
+
+    // Writes f 10^e, f positive.
+    private static int layout(long f, int e, char[] buffer, int offset) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = 1;
+        for (long limit = 10; length < 19 && f >= limit; limit *= 10) {
+            length++;
+        }
+        // The exponent of the first digit.
+        int exponent = e + length - 1;
+
+        if (0 <= exponent && exponent < 7) {
+            if (e >= 0) {
+                digits(f, length, buffer, offset);
+                offset += length;
+                for (int i = 0; i < e; i++) {
+                    buffer[offset++] = '0';
+                }
+                return offset;
+            }
+            // The digits go one to the right, then the integral ones move back in front of the point.
+            digits(f, length, buffer, offset + 1);
+            for (int i = 0; i <= exponent; i++) {
+                buffer[offset + i] = buffer[offset + i + 1];
+            }
+            buffer[offset + exponent + 1] = '.';
+            return offset + length + 1;
+        }
+
+        if (-3 <= exponent && exponent < 0) {
+            buffer[offset++] = '0';
+            buffer[offset++] = '.';
+            for (int i = -1; i > exponent; i--) {
+                buffer[offset++] = '0';
+            }
+            digits(f, length, buffer, offset);
+            return offset + length;
+        }
+
+        digits(f, length, buffer, offset + 1);
+        buffer[offset] = buffer[offset + 1];
+        buffer[offset + 1] = '.';
+        offset += length + 1;
+        if (length == 1) buffer[offset++] = '0';
+        buffer[offset++] = 'E';
+        if (exponent < 0) {
+            buffer[offset++] = '-';
+            exponent = -exponent;
+        }
+        int exponentLength = exponent >= 100 ? 3 : exponent >= 10 ? 2 : 1;
+        digits(exponent, exponentLength, buffer, offset);
+        return offset + exponentLength;
+    }
+
+    private static void digits(long value, int length, char[] buffer, int offset) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int append(String text, char[] buffer, int offset) {
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+
+    // floor(e log10(2))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
@@ -6,5 +6,6 @@ import visitor.ExpressionVisitor;
 import java.util.List;
 
 public interface Interpreter{
+    /** The statements must have gone through a {@link resolver.Resolver} first. */
     void interpret(List<Statement> statements);
 }
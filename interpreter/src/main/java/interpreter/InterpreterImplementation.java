@@ -1,13 +1,17 @@
 package interpreter;
 
 import environment.Environment;
-import environment.EnvironmentImplementation;
+import environment.FrameEnvironment;
+import environment.Operations;
 import exception.InterpretException;
 import expression.Expression;
 import expression.impl.*;
+import output.Output;
+import scope.ScopeDescriptor;
 import statement.Statement;
 import statement.impl.*;
 import token.Token;
+import value.Rope;
 import visitor.ExpressionVisitor;
 import visitor.StatementVisitor;
 
@@ -17,44 +21,61 @@ import static token.TokenType.*;
 
 public class InterpreterImplementation implements Interpreter, ExpressionVisitor, StatementVisitor {
 
-    private Environment environment = new EnvironmentImplementation();
+    private static final Object UNBOXED = new Object();
+
+    private final Output output;
+    private Environment environment;
+
+    public InterpreterImplementation(Output output) {
+        this.output = output;
+    }
 
     @Override
     public void interpret(List<Statement> statements) {
+        environment = new FrameEnvironment(null, ScopeDescriptor.of(statements));
         statements.forEach(s -> s.accept(this));
     }
 
     @Override
     public Object visitBinary(BinaryExpression expression) {
+        if (isNumeric(expression)) {
+            // Both sides are known to be numbers, so only the result gets boxed.
+            if (isComparison(expression)) return compare(expression);
+            return arithmetic(expression);
+        }
+
         Object left = evaluate(expression.getLeft());
         Object right = evaluate(expression.getRight());
+        return binary(expression.getOperator(), left, right);
+    }
 
-        switch (expression.getOperator().getType()) {
+    private Object binary(Token operator, Object left, Object right) {
+        switch (operator.getType()) {
             case GREATER:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left > (double)right;
             case GREATER_EQUAL:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left >= (double)right;
             case LESS:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left < (double)right;
             case LESS_EQUAL:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left <= (double)right;
             case MINUS:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left - (double)right;
             case PLUS:
                 if(left instanceof Number && right instanceof Number){
                     return (double)left + (double)right;
                 }
-                return left.toString() + right.toString();
+                return Rope.concat(left, right);
             case SLASH:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left / (double)right;
             case STAR:
-                checkNumberOperands(expression.getOperator(), left, right);
+                Operations.checkNumberOperands(left, right, operator.getLine());
                 return (double)left * (double)right;
         }
 
@@ -74,10 +95,12 @@ public class InterpreterImplementation implements Interpreter, ExpressionVisitor
 
     @Override
     public Object visitUnary(UnaryExpression expression) {
+        if (isNumeric(expression)) return -evaluateDouble(expression.getRight());
+
         Object right = evaluate(expression.getRight());
 
         if (expression.getOperator().getType() == MINUS) {
-            checkNumberOperand(expression.getOperator(), right);
+            Operations.checkNumberOperand(right, expression.getOperator().getLine());
             return -(double) right;
         }
 
@@ -87,17 +110,32 @@ public class InterpreterImplementation implements Interpreter, ExpressionVisitor
 
     @Override
     public Object visitVariable(VariableExpression expression) {
-        return environment.get(expression.getName());
+        if (!expression.isResolved()) {
+            throw new InterpretException(expression.getName(), "Variable not found");
+        }
+        return environment.get(expression.getDepth(), expression.getSlot());
     }
 
     @Override
     public Object visitAssignment(AssigmentExpression expression) {
         Object value = evaluate(expression.getExpression());
 
-        environment.assign(expression.getName(), value);
+        if (!expression.isResolved()) {
+            throw new InterpretException(expression.getName(), "Undefined variable '" + expression.getSymbol().getName() + "'.");
+        }
+        if (expression.isVerified()) {
+            environment.set(expression.getDepth(), expression.getSlot(), value);
+        } else {
+            environment.assign(expression.getDepth(), expression.getSlot(), expression.getName(), value);
+        }
         return value;
     }
 
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        return evaluateBoolean(expression);
+    }
+
     @Override
     public void visitExpressionStatement(ExpressionStatement statement) {
         evaluate(statement.getExpression());
@@ -105,8 +143,11 @@ public class InterpreterImplementation implements Interpreter, ExpressionVisitor
 
     @Override
     public void visitPrintStatement(PrintStatement statement) {
-        Object value = evaluate(statement.getExpression());
-        System.out.println(value);
+        if (isNumeric(statement.getExpression())) {
+            output.println(evaluateDouble(statement.getExpression()));
+            return;
+        }
+        output.println(evaluate(statement.getExpression()));
     }
 
     @Override
@@ -115,32 +156,22 @@ public class InterpreterImplementation implements Interpreter, ExpressionVisitor
         if (statement.getExpression() != null){
             value = evaluate(statement.getExpression());
         }
-        if (value == null){
-            environment.add(statement.getName().getLexeme(), statement.getKeyWord().getType(), statement.getType(), null);
-            return;
-        }
-        if (statement.getType() == BOOLEAN){
-            if (!(value instanceof Boolean)){
-                throw new InterpretException(statement.getName(), "Expected a Boolean");
-            }
+        if (!statement.isVerified()){
+            Operations.declare(value, statement.getType(), statement.getName().getLine());
         }
-        if (statement.getType() == NUMBER_TYPE){
-            if (!(value instanceof Number)){
-                throw new InterpretException(statement.getName(), "Expected a Number");
-            }
-        }
-        if (statement.getType() == STRING_TYPE){
-            if (!(value instanceof String)){
-                throw new InterpretException(statement.getName(), "Expected a String");
-            }
-        }
-
-        environment.add(statement.getName().getLexeme(), statement.getKeyWord().getType(), statement.getType(), value);
+        environment.define(statement.getSlot(), value);
     }
 
     @Override
     public void visitBlockStatement(BlockStatement statement) {
-        executeBlock(statement.getStatement(), new EnvironmentImplementation(environment));
+        if (statement.getScope().size() == 0) {
+            // Nothing is declared, so the block runs in the enclosing frame, as resolved.
+            for (Statement inner : statement.getStatement()) {
+                inner.accept(this);
+            }
+            return;
+        }
+        executeBlock(statement.getStatement(), new FrameEnvironment(environment, statement.getScope()));
     }
 
     private void executeBlock(List<Statement> statements, Environment environment) {
@@ -158,32 +189,172 @@ public class InterpreterImplementation implements Interpreter, ExpressionVisitor
 
     @Override
     public void visitIfStatement(IfStatement statement) {
-        if (isTruthy(evaluate(statement.getCondition()))) {
+        if (evaluateBoolean(statement.getCondition())) {
             statement.getThenDo().accept(this);
         } else if (statement.getElseDo() != null) {
             statement.getElseDo().accept(this);
         }
     }
 
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        Statement body = statement.getBody();
+        Environment frame = null;
+        if (body instanceof BlockStatement && ((BlockStatement) body).getScope().size() > 0) {
+            // Nothing can hold on to a frame once its block is done, so every pass can declare its
+            // variables over again in the same one.
+            frame = new FrameEnvironment(environment, ((BlockStatement) body).getScope());
+        }
+
+        Expression condition = statement.getCondition();
+        if (condition instanceof BinaryExpression && isNumeric((BinaryExpression) condition)
+                && isComparison((BinaryExpression) condition)) {
+            BinaryExpression comparison = (BinaryExpression) condition;
+            boolean leftFixed = statement.isInvariant(comparison.getLeft());
+            boolean rightFixed = statement.isInvariant(comparison.getRight());
+            if (leftFixed || rightFixed) {
+                // A side that keeps its value is evaluated on the first pass only, the one that would fail.
+                double left = leftOperand(comparison);
+                double right = rightOperand(comparison, left);
+                while (compare(comparison.getOperator(), left, right)) {
+                    execute(body, frame);
+                    if (!leftFixed) left = leftOperand(comparison);
+                    if (!rightFixed) right = rightOperand(comparison, left);
+                }
+                return;
+            }
+        }
+
+        while (evaluateBoolean(condition)) {
+            execute(body, frame);
+        }
+    }
+
+    private void execute(Statement body, Environment frame) {
+        if (frame != null) {
+            executeBlock(((BlockStatement) body).getStatement(), frame);
+        } else {
+            body.accept(this);
+        }
+    }
+
     private Object evaluate(Expression expression) {
         return expression.accept(this);
     }
 
-    private boolean isTruthy(Object object) {
-        if (object == null) return false;
-        if (object instanceof Boolean) return (boolean)object;
-        return true;
+    /**
+     * Evaluates an expression the resolver typed as a number without boxing anything on the way. Only
+     * called on expressions that cannot end up holding null, see {@link #isNumeric(Expression)}.
+     */
+    private double evaluateDouble(Expression expression) {
+        if (expression instanceof BinaryExpression) return arithmetic((BinaryExpression) expression);
+        if (expression instanceof UnaryExpression) return -evaluateDouble(((UnaryExpression) expression).getRight());
+        if (expression instanceof GroupingExpression) return evaluateDouble(((GroupingExpression) expression).getExpression());
+        return (double) evaluate(expression);
     }
 
-    private void checkNumberOperand(Token operator, Object operand) {
-        if (operand instanceof Double) return;
-        throw new InterpretException(operator, "Operand must be a number.");
+    // Conditions made of number comparisons, and, and or are tested without boxing anything.
+    private boolean evaluateBoolean(Expression expression) {
+        if (expression instanceof BinaryExpression && isNumeric((BinaryExpression) expression)
+                && isComparison((BinaryExpression) expression)) {
+            return compare((BinaryExpression) expression);
+        }
+        if (expression instanceof LogicalExpression) {
+            LogicalExpression logical = (LogicalExpression) expression;
+            if (logical.getOperator().getType() == AND) {
+                return evaluateBoolean(logical.getLeft()) && evaluateBoolean(logical.getRight());
+            }
+            return evaluateBoolean(logical.getLeft()) || evaluateBoolean(logical.getRight());
+        }
+        return Operations.isTruthy(evaluate(expression));
     }
 
-    private void checkNumberOperands(Token operator, Object left, Object right) {
-        if (left instanceof Double && right instanceof Double) return;
+    private double arithmetic(BinaryExpression expression) {
+        Token operator = expression.getOperator();
+        Object boxed = operand(expression.getLeft());
+        if (boxed == null) return (double) binary(operator, null, evaluate(expression.getRight()));
+        double left = boxed == UNBOXED ? evaluateDouble(expression.getLeft()) : (double) boxed;
+
+        boxed = operand(expression.getRight());
+        if (boxed == null) return (double) binary(operator, left, null);
+        double right = boxed == UNBOXED ? evaluateDouble(expression.getRight()) : (double) boxed;
 
-        throw new InterpretException(operator, "Operands must be numbers.");
+        switch (operator.getType()) {
+            case MINUS: return left - right;
+            case PLUS: return left + right;
+            case SLASH: return left / right;
+            case STAR: return left * right;
+        }
+
+        // Unreachable.
+        return 0;
+    }
+
+    private boolean compare(BinaryExpression expression) {
+        double left = leftOperand(expression);
+        return compare(expression.getOperator(), left, rightOperand(expression, left));
+    }
+
+    // The left side of a number comparison. Null fails the comparison, once the right side is evaluated too.
+    private double leftOperand(BinaryExpression expression) {
+        Object boxed = operand(expression.getLeft());
+        if (boxed == null) return (double) binary(expression.getOperator(), null, evaluate(expression.getRight()));
+        return boxed == UNBOXED ? evaluateDouble(expression.getLeft()) : (double) boxed;
+    }
+
+    private double rightOperand(BinaryExpression expression, double left) {
+        Object boxed = operand(expression.getRight());
+        if (boxed == null) return (double) binary(expression.getOperator(), left, null);
+        return boxed == UNBOXED ? evaluateDouble(expression.getRight()) : (double) boxed;
+    }
+
+    private boolean compare(Token operator, double left, double right) {
+        switch (operator.getType()) {
+            case GREATER: return left > right;
+            case GREATER_EQUAL: return left >= right;
+            case LESS: return left < right;
+            case LESS_EQUAL: return left <= right;
+        }
+
+        // Unreachable.
+        return false;
+    }
+
+    /**
+     * A number-typed operand that can be evaluated with {@link #evaluateDouble(Expression)} comes back as
+     * {@link #UNBOXED}. Anything else, a variable or an assignment, is evaluated here: it already holds a boxed
+     * number, or null when it was declared without one, which then fails the same way it always has.
+     */
+    private Object operand(Expression expression) {
+        return isNumeric(expression) ? UNBOXED : evaluate(expression);
+    }
+
+    // Number-typed expressions that always produce a number, or fail trying.
+    private boolean isNumeric(Expression expression) {
+        if (expression instanceof BinaryExpression) return isNumeric((BinaryExpression) expression) && !isComparison((BinaryExpression) expression);
+        if (expression instanceof UnaryExpression) return isNumeric((UnaryExpression) expression);
+        if (expression instanceof GroupingExpression) return isNumeric(((GroupingExpression) expression).getExpression());
+        return expression instanceof LiteralExpression && expression.getStaticType() == NUMBER_TYPE;
+    }
+
+    private boolean isNumeric(BinaryExpression expression) {
+        return expression.getLeft().getStaticType() == NUMBER_TYPE && expression.getRight().getStaticType() == NUMBER_TYPE;
+    }
+
+    private boolean isNumeric(UnaryExpression expression) {
+        return expression.getOperator().getType() == MINUS && isNumeric(expression.getRight());
+    }
+
+    private boolean isComparison(BinaryExpression expression) {
+        switch (expression.getOperator().getType()) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return true;
+            default:
+                return false;
+        }
     }
 
 }
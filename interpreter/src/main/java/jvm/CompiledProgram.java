@@ -0,0 +1,9 @@
+package jvm;
+
+import output.Output;
+
+/** A program compiled to a JVM class. */
+public interface CompiledProgram {
+
+    void run(Output out);
+}
@@ -0,0 +1,11 @@
+package jvm;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface JvmCompiler {
+
+    /** Compiles a resolved and type-checked program to JVM classes and loads them. */
+    CompiledProgram compile(List<Statement> statements);
+}
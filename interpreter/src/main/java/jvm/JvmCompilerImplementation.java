@@ -0,0 +1,652 @@
+package jvm;
+
+import environment.Operations;
+import expression.Expression;
+import expression.impl.*;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import scope.ScopeDescriptor;
+import statement.Statement;
+import statement.impl.*;
+import token.Token;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+import static token.TokenType.AND;
+import static token.TokenType.NUMBER_TYPE;
+
+/**
+ * Compiles a program to JVM classes so the JIT can take it from there.
+ *
+ * Top-level statements are cut into segments, each compiled to a static method of its own class, so no
+ * method or constant pool outgrows what a class file can hold. Top-level variables live in a double[] and
+ * an Object[] shared by all segments; variables declared in blocks become locals of the segment method.
+ * A top-level statement too big for one method, such as a loop with a long body, keeps the variables of its
+ * blocks in further slots of the shared arrays instead, which is safe since a block is never entered again
+ * before it ends. Its statement lists are then cut into parts, each a static method of its own class taking
+ * the same arguments as a segment.
+ * A number variable is kept as an unboxed double when it is sure never to hold null, that is, when it is
+ * declared with a value that is always a number. Expressions on such values compile to plain double
+ * arithmetic; everything else goes through {@link Operations} on boxed values, with the same checks and
+ * errors as the interpreter. Every expression visit answers whether it left an unboxed double.
+ *
+ * A single expression still has to fit in one method.
+ */
+public class JvmCompilerImplementation implements JvmCompiler, ExpressionVisitor, StatementVisitor {
+
+    private static final String PACKAGE = "printscript/";
+    private static final String PROGRAM = PACKAGE + "Program";
+    private static final String SEGMENT = PACKAGE + "Segment";
+    private static final String PART = PACKAGE + "Part";
+    private static final String OPERATIONS = "environment/Operations";
+    private static final String TOKEN_TYPE = "token/TokenType";
+    private static final String SEGMENT_DESCRIPTOR = "(Loutput/Output;[D[Ljava/lang/Object;)V";
+    private static final String BINARY_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;I)Ljava/lang/Object;";
+    // Roughly how many nodes fit in one segment method without getting near its 64KB limit.
+    private static final int SEGMENT_WEIGHT = 1500;
+
+    // Parameters of a segment method.
+    private static final int OUT = 0;
+    private static final int NUMBERS = 1;
+    private static final int VALUES = 2;
+    private static final int FIRST_LOCAL = 3;
+
+    private ScriptClassLoader loader;
+    private MethodVisitor method;
+    private int nextLocal;
+    private List<Variable[]> scopes = new ArrayList<>();
+    // Whether variables of blocks go to the shared arrays, from the next free slot of them on.
+    private boolean spilling;
+    private int nextSlot;
+    private int slots;
+    private int parts;
+
+    @Override
+    public CompiledProgram compile(List<Statement> statements) {
+        loader = new ScriptClassLoader();
+        ScopeDescriptor globals = ScopeDescriptor.of(statements);
+        scopes.add(new Variable[globals.size()]);
+        slots = globals.size();
+
+        int segments = 0;
+        int from = 0;
+        while (from < statements.size()) {
+            int to = from;
+            int weight = 0;
+            do {
+                weight += weight(statements.get(to++));
+            } while (to < statements.size() && weight + weight(statements.get(to)) <= SEGMENT_WEIGHT);
+
+            // Only a statement over the weight on its own can be, and it is then split into parts.
+            spilling = weight > SEGMENT_WEIGHT;
+            nextSlot = globals.size();
+            String name = SEGMENT + segments++;
+            loader.define(name, segment(name, statements.subList(from, to)));
+            from = to;
+        }
+
+        try {
+            Class<?> program = loader.define(PROGRAM, program(segments, slots));
+            return (CompiledProgram) program.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load the compiled program", e);
+        }
+    }
+
+    private byte[] segment(String name, List<Statement> statements) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, "java/lang/Object", null);
+
+        method = writer.visitMethod(ACC_PUBLIC | ACC_STATIC, "run", SEGMENT_DESCRIPTOR, null, null);
+        method.visitCode();
+        nextLocal = FIRST_LOCAL;
+        compileStatements(statements);
+        method.visitInsn(RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    // Compiles the statements to a part of their own and calls it from where the method has got to.
+    private void part(List<Statement> statements) {
+        MethodVisitor caller = method;
+        String name = PART + parts++;
+        loader.define(name, segment(name, statements));
+        method = caller;
+        method.visitVarInsn(ALOAD, OUT);
+        method.visitVarInsn(ALOAD, NUMBERS);
+        method.visitVarInsn(ALOAD, VALUES);
+        method.visitMethodInsn(INVOKESTATIC, name, "run", SEGMENT_DESCRIPTOR, false);
+    }
+
+    private byte[] program(int segments, int slots) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, PROGRAM, null, "java/lang/Object",
+                new String[] { "jvm/CompiledProgram" });
+
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        method = writer.visitMethod(ACC_PUBLIC, "run", "(Loutput/Output;)V", null, null);
+        method.visitCode();
+        pushInt(slots);
+        method.visitIntInsn(NEWARRAY, T_DOUBLE);
+        method.visitVarInsn(ASTORE, 2);
+        pushInt(slots);
+        method.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+        method.visitVarInsn(ASTORE, 3);
+        for (int segment = 0; segment < segments; segment++) {
+            method.visitVarInsn(ALOAD, 1);
+            method.visitVarInsn(ALOAD, 2);
+            method.visitVarInsn(ALOAD, 3);
+            method.visitMethodInsn(INVOKESTATIC, SEGMENT + segment, "run", SEGMENT_DESCRIPTOR, false);
+        }
+        method.visitInsn(RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        Token operator = expression.getOperator();
+
+        if (isDouble(expression.getLeft()) && isDouble(expression.getRight())) {
+            compile(expression.getLeft());
+            compile(expression.getRight());
+            switch (operator.getType()) {
+                case PLUS: method.visitInsn(DADD); return true;
+                case MINUS: method.visitInsn(DSUB); return true;
+                case STAR: method.visitInsn(DMUL); return true;
+                case SLASH: method.visitInsn(DDIV); return true;
+            }
+
+            // A comparison, pushed as one of the two Boolean constants.
+            Label isFalse = new Label();
+            Label end = new Label();
+            compareAndJump(operator, isFalse);
+            method.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "TRUE", "Ljava/lang/Boolean;");
+            method.visitJumpInsn(GOTO, end);
+            method.visitLabel(isFalse);
+            method.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "FALSE", "Ljava/lang/Boolean;");
+            method.visitLabel(end);
+            return false;
+        }
+
+        compileBoxed(expression.getLeft());
+        compileBoxed(expression.getRight());
+        if (operator.getType() == TokenType.PLUS) {
+            method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "add",
+                    "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+            return false;
+        }
+        pushInt(operator.getLine());
+        method.visitMethodInsn(INVOKESTATIC, OPERATIONS, operation(operator), BINARY_DESCRIPTOR, false);
+        return false;
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return compile(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        Object value = expression.getValue();
+        if (value instanceof Double) {
+            method.visitLdcInsn(value);
+            return true;
+        }
+        if (value instanceof Boolean) {
+            method.visitFieldInsn(GETSTATIC, "java/lang/Boolean", (boolean) value ? "TRUE" : "FALSE", "Ljava/lang/Boolean;");
+        } else if (value == null) {
+            method.visitInsn(ACONST_NULL);
+        } else {
+            method.visitLdcInsn(value);
+        }
+        return false;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        if (isDouble(expression.getRight())) {
+            compile(expression.getRight());
+            method.visitInsn(DNEG);
+            return true;
+        }
+
+        compileBoxed(expression.getRight());
+        pushInt(expression.getOperator().getLine());
+        method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "negate", "(Ljava/lang/Object;I)Ljava/lang/Object;", false);
+        return false;
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        if (!expression.isResolved()) {
+            fail("Variable not found", expression.getName().getLine());
+            return false;
+        }
+
+        Variable variable = variable(expression.getDepth(), expression.getSlot());
+        if (variable.shared) {
+            method.visitVarInsn(ALOAD, variable.number ? NUMBERS : VALUES);
+            pushInt(variable.index);
+            method.visitInsn(variable.number ? DALOAD : AALOAD);
+        } else {
+            method.visitVarInsn(variable.number ? DLOAD : ALOAD, variable.index);
+        }
+        return variable.number;
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        if (!expression.isResolved()) {
+            compileBoxed(expression.getExpression());
+            fail("Undefined variable '" + expression.getSymbol().getName() + "'.", expression.getName().getLine());
+            return false;
+        }
+
+        Variable variable = variable(expression.getDepth(), expression.getSlot());
+        if (variable.shared) {
+            method.visitVarInsn(ALOAD, variable.number ? NUMBERS : VALUES);
+            pushInt(variable.index);
+        }
+
+        if (variable.number && expression.isVerified() && isDouble(expression.getExpression())) {
+            compile(expression.getExpression());
+        } else {
+            compileBoxed(expression.getExpression());
+            if (!expression.isVerified()) {
+                pushTokenType(variable.keyword);
+                pushTokenType(variable.type);
+                pushInt(expression.getName().getLine());
+                method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "assign",
+                        "(Ljava/lang/Object;Ltoken/TokenType;Ltoken/TokenType;I)Ljava/lang/Object;", false);
+            }
+            // Only a number gets through the check into a number variable.
+            if (variable.number) unbox();
+        }
+
+        // The assignment is also an expression, so its value stays on the stack.
+        if (variable.shared) {
+            method.visitInsn(variable.number ? DUP2_X2 : DUP_X2);
+            method.visitInsn(variable.number ? DASTORE : AASTORE);
+        } else {
+            method.visitInsn(variable.number ? DUP2 : DUP);
+            method.visitVarInsn(variable.number ? DSTORE : ASTORE, variable.index);
+        }
+        return variable.number;
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        Label whenFalse = new Label();
+        Label end = new Label();
+        compileCondition(expression, whenFalse);
+        method.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "TRUE", "Ljava/lang/Boolean;");
+        method.visitJumpInsn(GOTO, end);
+        method.visitLabel(whenFalse);
+        method.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "FALSE", "Ljava/lang/Boolean;");
+        method.visitLabel(end);
+        return false;
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        method.visitInsn(compile(statement.getExpression()) ? POP2 : POP);
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        method.visitVarInsn(ALOAD, OUT);
+        String descriptor = compile(statement.getExpression()) ? "(D)V" : "(Ljava/lang/Object;)V";
+        method.visitMethodInsn(INVOKEINTERFACE, "output/Output", "println", descriptor, true);
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        Expression initializer = statement.getExpression();
+        Variable[] scope = scopes.get(scopes.size() - 1);
+        boolean global = scopes.size() == 1;
+        boolean number = statement.getType() == NUMBER_TYPE && initializer != null && isDouble(initializer);
+
+        Variable variable = new Variable(global || spilling, number, statement.getKeyWord().getType(), statement.getType());
+        if (global) {
+            variable.index = statement.getSlot();
+        } else if (spilling) {
+            variable.index = nextSlot++;
+            slots = Math.max(slots, nextSlot);
+        }
+        if (variable.shared) {
+            method.visitVarInsn(ALOAD, number ? NUMBERS : VALUES);
+            pushInt(variable.index);
+        } else {
+            variable.index = nextLocal;
+            nextLocal += number ? 2 : 1;
+        }
+
+        if (number) {
+            compile(initializer);
+        } else if (initializer == null) {
+            method.visitInsn(ACONST_NULL);
+        } else {
+            compileBoxed(initializer);
+            if (!statement.isVerified()) {
+                pushTokenType(statement.getType());
+                pushInt(statement.getName().getLine());
+                method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "declare",
+                        "(Ljava/lang/Object;Ltoken/TokenType;I)Ljava/lang/Object;", false);
+            }
+        }
+
+        if (variable.shared) {
+            method.visitInsn(number ? DASTORE : AASTORE);
+        } else {
+            method.visitVarInsn(number ? DSTORE : ASTORE, variable.index);
+        }
+        // Declared only now, so the initializer still sees whatever the name meant before.
+        scope[statement.getSlot()] = variable;
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        // A block that declares nothing was resolved into the enclosing scope.
+        if (statement.getScope().size() == 0) {
+            compileStatements(statement.getStatement());
+            return;
+        }
+
+        int firstLocal = nextLocal;
+        int firstSlot = nextSlot;
+        scopes.add(new Variable[statement.getScope().size()]);
+        compileStatements(statement.getStatement());
+        scopes.remove(scopes.size() - 1);
+        // The block's locals are dead once it ends, and so are its slots.
+        nextLocal = firstLocal;
+        nextSlot = firstSlot;
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        Label elseDo = new Label();
+        compileCondition(statement.getCondition(), elseDo);
+        statement.getThenDo().accept(this);
+
+        if (statement.getElseDo() == null) {
+            method.visitLabel(elseDo);
+            return;
+        }
+        Label end = new Label();
+        method.visitJumpInsn(GOTO, end);
+        method.visitLabel(elseDo);
+        statement.getElseDo().accept(this);
+        method.visitLabel(end);
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        Label start = new Label();
+        Label end = new Label();
+        method.visitLabel(start);
+        compileCondition(statement.getCondition(), end);
+        statement.getBody().accept(this);
+        method.visitJumpInsn(GOTO, start);
+        method.visitLabel(end);
+    }
+
+    // While spilling, runs of statements that together outweigh a segment go to parts of their own. A statement
+    // that does on its own stays, and splits its own statements the same way.
+    private void compileStatements(List<Statement> statements) {
+        if (!spilling || weight(statements) <= SEGMENT_WEIGHT) {
+            for (Statement statement : statements) {
+                statement.accept(this);
+            }
+            return;
+        }
+
+        int from = 0;
+        while (from < statements.size()) {
+            Statement first = statements.get(from);
+            if (weight(first) > SEGMENT_WEIGHT) {
+                first.accept(this);
+                from++;
+                continue;
+            }
+            int to = from + 1;
+            int weight = weight(first);
+            while (to < statements.size() && weight + weight(statements.get(to)) <= SEGMENT_WEIGHT) {
+                weight += weight(statements.get(to++));
+            }
+            part(statements.subList(from, to));
+            from = to;
+        }
+    }
+
+    private boolean compile(Expression expression) {
+        return (boolean) expression.accept(this);
+    }
+
+    private void compileBoxed(Expression expression) {
+        if (compile(expression)) {
+            method.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;", false);
+        }
+    }
+
+    // Jumps when the condition is not truthy, without boxing a comparison of two doubles.
+    private void compileCondition(Expression condition, Label whenFalse) {
+        while (condition instanceof GroupingExpression) {
+            condition = ((GroupingExpression) condition).getExpression();
+        }
+        if (condition instanceof LogicalExpression) {
+            LogicalExpression logical = (LogicalExpression) condition;
+            if (logical.getOperator().getType() == AND) {
+                compileCondition(logical.getLeft(), whenFalse);
+                compileCondition(logical.getRight(), whenFalse);
+                return;
+            }
+            Label tryRight = new Label();
+            Label end = new Label();
+            compileCondition(logical.getLeft(), tryRight);
+            method.visitJumpInsn(GOTO, end);
+            method.visitLabel(tryRight);
+            compileCondition(logical.getRight(), whenFalse);
+            method.visitLabel(end);
+            return;
+        }
+        if (condition instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) condition;
+            if (isComparison(binary.getOperator()) && isDouble(binary.getLeft()) && isDouble(binary.getRight())) {
+                compile(binary.getLeft());
+                compile(binary.getRight());
+                compareAndJump(binary.getOperator(), whenFalse);
+                return;
+            }
+        }
+
+        compileBoxed(condition);
+        method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "isTruthy", "(Ljava/lang/Object;)Z", false);
+        method.visitJumpInsn(IFEQ, whenFalse);
+    }
+
+    // The same comparisons javac generates, so NaN compares false either way.
+    private void compareAndJump(Token operator, Label whenFalse) {
+        switch (operator.getType()) {
+            case GREATER:
+                method.visitInsn(DCMPL);
+                method.visitJumpInsn(IFLE, whenFalse);
+                break;
+            case GREATER_EQUAL:
+                method.visitInsn(DCMPL);
+                method.visitJumpInsn(IFLT, whenFalse);
+                break;
+            case LESS:
+                method.visitInsn(DCMPG);
+                method.visitJumpInsn(IFGE, whenFalse);
+                break;
+            case LESS_EQUAL:
+                method.visitInsn(DCMPG);
+                method.visitJumpInsn(IFGT, whenFalse);
+                break;
+            default:
+                throw new IllegalStateException("Not a comparison: " + operator.getType());
+        }
+    }
+
+    /**
+     * Whether the expression compiles to an unboxed double. Matches what the visit methods return, without
+     * generating anything.
+     */
+    private boolean isDouble(Expression expression) {
+        if (expression instanceof LiteralExpression) return ((LiteralExpression) expression).getValue() instanceof Double;
+        if (expression instanceof GroupingExpression) return isDouble(((GroupingExpression) expression).getExpression());
+        if (expression instanceof UnaryExpression) return isDouble(((UnaryExpression) expression).getRight());
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return !isComparison(binary.getOperator()) && isDouble(binary.getLeft()) && isDouble(binary.getRight());
+        }
+        if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return variable.isResolved() && variable(variable.getDepth(), variable.getSlot()).number;
+        }
+        if (expression instanceof AssigmentExpression) {
+            AssigmentExpression assignment = (AssigmentExpression) expression;
+            return assignment.isResolved() && variable(assignment.getDepth(), assignment.getSlot()).number;
+        }
+        return false;
+    }
+
+    private boolean isComparison(Token operator) {
+        switch (operator.getType()) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private String operation(Token operator) {
+        switch (operator.getType()) {
+            case MINUS: return "subtract";
+            case STAR: return "multiply";
+            case SLASH: return "divide";
+            case GREATER: return "greater";
+            case GREATER_EQUAL: return "greaterEqual";
+            case LESS: return "less";
+            case LESS_EQUAL: return "lessEqual";
+            default: throw new IllegalStateException("Not a binary operator: " + operator.getType());
+        }
+    }
+
+    private Variable variable(int depth, int slot) {
+        return scopes.get(scopes.size() - 1 - depth)[slot];
+    }
+
+    private void unbox() {
+        method.visitTypeInsn(CHECKCAST, "java/lang/Double");
+        method.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Double", "doubleValue", "()D", false);
+    }
+
+    private void fail(String message, int line) {
+        method.visitLdcInsn(message);
+        pushInt(line);
+        method.visitMethodInsn(INVOKESTATIC, OPERATIONS, "fail", "(Ljava/lang/String;I)Ljava/lang/RuntimeException;", false);
+        method.visitInsn(ATHROW);
+    }
+
+    private void pushTokenType(TokenType type) {
+        if (type == null) {
+            method.visitInsn(ACONST_NULL);
+            return;
+        }
+        method.visitFieldInsn(GETSTATIC, TOKEN_TYPE, type.name(), "L" + TOKEN_TYPE + ";");
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            method.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            method.visitIntInsn(SIPUSH, value);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+
+    // Number of nodes, to size segments by.
+    private static int weight(List<Statement> statements) {
+        int weight = 0;
+        for (Statement statement : statements) weight += weight(statement);
+        return weight;
+    }
+
+    private static int weight(Statement statement) {
+        if (statement instanceof BlockStatement) return 1 + weight(((BlockStatement) statement).getStatement());
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+            int weight = 1 + weight(ifStatement.getCondition()) + weight(ifStatement.getThenDo());
+            return ifStatement.getElseDo() != null ? weight + weight(ifStatement.getElseDo()) : weight;
+        }
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+            return 1 + weight(whileStatement.getCondition()) + weight(whileStatement.getBody());
+        }
+        if (statement instanceof VariableStatement) {
+            Expression initializer = ((VariableStatement) statement).getExpression();
+            return initializer != null ? 1 + weight(initializer) : 1;
+        }
+        if (statement instanceof PrintStatement) return 1 + weight(((PrintStatement) statement).getExpression());
+        if (statement instanceof ExpressionStatement) return 1 + weight(((ExpressionStatement) statement).getExpression());
+        return 1;
+    }
+
+    private static int weight(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            return 1 + weight(((BinaryExpression) expression).getLeft()) + weight(((BinaryExpression) expression).getRight());
+        }
+        if (expression instanceof UnaryExpression) return 1 + weight(((UnaryExpression) expression).getRight());
+        if (expression instanceof GroupingExpression) return weight(((GroupingExpression) expression).getExpression());
+        if (expression instanceof LogicalExpression) {
+            return 1 + weight(((LogicalExpression) expression).getLeft()) + weight(((LogicalExpression) expression).getRight());
+        }
+        if (expression instanceof AssigmentExpression) return 1 + weight(((AssigmentExpression) expression).getExpression());
+        return 1;
+    }
+
+    private static class Variable {
+        // Held in the arrays shared by all methods rather than in a local of one.
+        private boolean shared;
+        // Held as an unboxed double rather than an object.
+        private boolean number;
+        private TokenType keyword;
+        private TokenType type;
+        // Slot in the shared arrays, or local variable index.
+        private int index;
+
+        private Variable(boolean shared, boolean number, TokenType keyword, TokenType type) {
+            this.shared = shared;
+            this.number = number;
+            this.keyword = keyword;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package jvm;
+
+/** Loads the classes of one compiled program, which can see the runtime support in this package. */
+class ScriptClassLoader extends ClassLoader {
+
+    ScriptClassLoader() {
+        super(ScriptClassLoader.class.getClassLoader());
+    }
+
+    Class<?> define(String internalName, byte[] bytes) {
+        return defineClass(internalName.replace('/', '.'), bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,36 @@
+package nodes;
+
+import environment.Operations;
+import token.TokenType;
+
+class AssignNode extends ExpressionNode {
+
+    private ExpressionNode value;
+    private final int slot;
+    private final TokenType keyword;
+    private final TokenType type;
+    private final int line;
+    private final boolean verified;
+
+    AssignNode(ExpressionNode value, int slot, boolean verified, TokenType keyword, TokenType type, int line) {
+        this.value = adopt(value);
+        this.slot = slot;
+        this.verified = verified;
+        this.keyword = keyword;
+        this.type = type;
+        this.line = line;
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        Object result = value.execute(frame);
+        if (!verified) Operations.assign(result, keyword, type, line);
+        frame[slot] = result;
+        return result;
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        value = (ExpressionNode) replacement;
+    }
+}
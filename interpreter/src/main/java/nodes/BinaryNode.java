@@ -0,0 +1,58 @@
+package nodes;
+
+import environment.Operations;
+import token.TokenType;
+
+/**
+ * A binary operation. It starts out as an {@link UninitializedBinaryNode} and becomes a specialization
+ * for the operand types it sees first. A specialization that meets other types gives up for good and
+ * becomes a {@link GenericBinaryNode}, which handles anything.
+ */
+abstract class BinaryNode extends ExpressionNode {
+
+    protected ExpressionNode left;
+    protected ExpressionNode right;
+    protected final TokenType operator;
+    protected final int line;
+
+    BinaryNode(ExpressionNode left, ExpressionNode right, TokenType operator, int line) {
+        this.left = adopt(left);
+        this.right = adopt(right);
+        this.operator = operator;
+        this.line = line;
+    }
+
+    /** Takes over the operands of the node it is about to replace. */
+    BinaryNode(BinaryNode node) {
+        this(node.left, node.right, node.operator, node.line);
+    }
+
+    /** The operation on any values, exactly as the interpreter does it. */
+    Object apply(Object leftValue, Object rightValue) {
+        switch (operator) {
+            case PLUS: return Operations.add(leftValue, rightValue);
+            case MINUS: return Operations.subtract(leftValue, rightValue, line);
+            case STAR: return Operations.multiply(leftValue, rightValue, line);
+            case SLASH: return Operations.divide(leftValue, rightValue, line);
+            case GREATER: return Operations.greater(leftValue, rightValue, line);
+            case GREATER_EQUAL: return Operations.greaterEqual(leftValue, rightValue, line);
+            case LESS: return Operations.less(leftValue, rightValue, line);
+            case LESS_EQUAL: return Operations.lessEqual(leftValue, rightValue, line);
+            default: throw new IllegalStateException("Not a binary operator: " + operator);
+        }
+    }
+
+    /** Rewrites this node to the generic one, which computes the result of the operands already evaluated. */
+    protected Object generalize(Object leftValue, Object rightValue) {
+        return replace(new GenericBinaryNode(this)).apply(leftValue, rightValue);
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        if (left == child) {
+            left = (ExpressionNode) replacement;
+        } else if (right == child) {
+            right = (ExpressionNode) replacement;
+        }
+    }
+}
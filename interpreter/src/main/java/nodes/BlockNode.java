@@ -0,0 +1,20 @@
+package nodes;
+
+class BlockNode extends StatementNode {
+
+    private final StatementNode[] statements;
+
+    BlockNode(StatementNode[] statements) {
+        this.statements = statements;
+        for (StatementNode statement : statements) {
+            adopt(statement);
+        }
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        for (StatementNode statement : statements) {
+            statement.execute(frame);
+        }
+    }
+}
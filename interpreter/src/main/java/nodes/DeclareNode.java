@@ -0,0 +1,36 @@
+package nodes;
+
+import environment.Operations;
+import token.TokenType;
+
+class DeclareNode extends StatementNode {
+
+    private ExpressionNode value;
+    private final int slot;
+    private final boolean verified;
+    private final TokenType type;
+    private final int line;
+
+    DeclareNode(ExpressionNode value, int slot, boolean verified, TokenType type, int line) {
+        this.value = adopt(value);
+        this.slot = slot;
+        this.verified = verified;
+        this.type = type;
+        this.line = line;
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        if (value == null) {
+            frame[slot] = null;
+            return;
+        }
+        Object result = value.execute(frame);
+        frame[slot] = verified ? result : Operations.declare(result, type, line);
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        value = (ExpressionNode) replacement;
+    }
+}
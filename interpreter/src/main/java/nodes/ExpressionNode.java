@@ -0,0 +1,13 @@
+package nodes;
+
+abstract class ExpressionNode extends Node {
+
+    abstract Object execute(Object[] frame);
+
+    /** Evaluates to an unboxed number, for nodes that expect one. */
+    double executeDouble(Object[] frame) throws UnexpectedResultException {
+        Object value = execute(frame);
+        if (value instanceof Double) return (double) value;
+        throw new UnexpectedResultException(value);
+    }
+}
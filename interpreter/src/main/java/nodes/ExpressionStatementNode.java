@@ -0,0 +1,20 @@
+package nodes;
+
+class ExpressionStatementNode extends StatementNode {
+
+    private ExpressionNode expression;
+
+    ExpressionStatementNode(ExpressionNode expression) {
+        this.expression = adopt(expression);
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        expression.execute(frame);
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        expression = (ExpressionNode) replacement;
+    }
+}
@@ -0,0 +1,28 @@
+package nodes;
+
+import exception.InterpretException;
+
+/** A use of a name that resolved to nothing. The value being assigned, if any, is still evaluated first. */
+class FailNode extends ExpressionNode {
+
+    private ExpressionNode value;
+    private final String message;
+    private final int line;
+
+    FailNode(ExpressionNode value, String message, int line) {
+        this.value = adopt(value);
+        this.message = message;
+        this.line = line;
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        if (value != null) value.execute(frame);
+        throw new InterpretException(message, line);
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        value = (ExpressionNode) replacement;
+    }
+}
@@ -0,0 +1,15 @@
+package nodes;
+
+class GenericBinaryNode extends BinaryNode {
+
+    GenericBinaryNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        Object leftValue = left.execute(frame);
+        Object rightValue = right.execute(frame);
+        return apply(leftValue, rightValue);
+    }
+}
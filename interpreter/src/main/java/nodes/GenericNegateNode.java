@@ -0,0 +1,15 @@
+package nodes;
+
+import environment.Operations;
+
+class GenericNegateNode extends NegateNode {
+
+    GenericNegateNode(NegateNode node) {
+        super(node);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        return Operations.negate(operand.execute(frame), line);
+    }
+}
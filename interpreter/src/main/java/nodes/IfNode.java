@@ -0,0 +1,30 @@
+package nodes;
+
+import environment.Operations;
+
+class IfNode extends StatementNode {
+
+    private ExpressionNode condition;
+    private final StatementNode thenDo;
+    private final StatementNode elseDo;
+
+    IfNode(ExpressionNode condition, StatementNode thenDo, StatementNode elseDo) {
+        this.condition = adopt(condition);
+        this.thenDo = adopt(thenDo);
+        this.elseDo = adopt(elseDo);
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        if (Operations.isTruthy(condition.execute(frame))) {
+            thenDo.execute(frame);
+        } else if (elseDo != null) {
+            elseDo.execute(frame);
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        condition = (ExpressionNode) replacement;
+    }
+}
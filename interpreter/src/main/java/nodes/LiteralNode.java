@@ -0,0 +1,15 @@
+package nodes;
+
+class LiteralNode extends ExpressionNode {
+
+    private final Object value;
+
+    LiteralNode(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        return value;
+    }
+}
@@ -0,0 +1,32 @@
+package nodes;
+
+import environment.Operations;
+
+/**
+ * A negation. Like binary operations, it starts out as an {@link UninitializedNegateNode}, specializes for
+ * numbers when that is what it sees first, and goes generic otherwise or later.
+ */
+abstract class NegateNode extends ExpressionNode {
+
+    protected ExpressionNode operand;
+    protected final int line;
+
+    NegateNode(ExpressionNode operand, int line) {
+        this.operand = adopt(operand);
+        this.line = line;
+    }
+
+    NegateNode(NegateNode node) {
+        this(node.operand, node.line);
+    }
+
+    protected Object generalize(Object value) {
+        replace(new GenericNegateNode(this));
+        return Operations.negate(value, line);
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        operand = (ExpressionNode) replacement;
+    }
+}
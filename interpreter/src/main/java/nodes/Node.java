@@ -0,0 +1,26 @@
+package nodes;
+
+/**
+ * A node of an executable tree. Nodes rewrite themselves as they learn what values they see: a node swaps
+ * itself for a replacement in its parent, and the replacement runs from the next execution on.
+ */
+abstract class Node {
+
+    private Node parent;
+
+    /** Puts the replacement where this node is in its parent. */
+    protected <T extends Node> T replace(T replacement) {
+        parent.replaceChild(this, replacement);
+        ((Node) replacement).parent = parent;
+        return replacement;
+    }
+
+    protected <T extends Node> T adopt(T child) {
+        if (child != null) ((Node) child).parent = this;
+        return child;
+    }
+
+    protected void replaceChild(Node child, Node replacement) {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no children to replace");
+    }
+}
@@ -0,0 +1,11 @@
+package nodes;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface NodeCompiler {
+
+    /** Builds a tree of self-specializing nodes for a resolved and type-checked program, ready to run. */
+    Runnable compile(List<Statement> statements);
+}
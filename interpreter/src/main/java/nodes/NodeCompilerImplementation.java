@@ -0,0 +1,173 @@
+package nodes;
+
+import expression.Expression;
+import expression.impl.*;
+import output.Output;
+import scope.ScopeDescriptor;
+import statement.Statement;
+import statement.impl.*;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the executable tree. Operations start out uninitialized and specialize themselves on the values
+ * they see when they first run; see {@link BinaryNode}. Each declaration gets its own slot in one flat
+ * frame for the whole program. Statement visits leave their node in {@link #compiled}.
+ */
+public class NodeCompilerImplementation implements NodeCompiler, ExpressionVisitor, StatementVisitor {
+
+    // First slot of every scope being compiled, innermost last.
+    private List<Integer> bases = new ArrayList<>();
+    private int slots = 0;
+    // Keyword and type of every slot.
+    private List<TokenType> keywords = new ArrayList<>();
+    private List<TokenType> types = new ArrayList<>();
+    private StatementNode compiled;
+    private final Output output;
+
+    public NodeCompilerImplementation(Output output) {
+        this.output = output;
+    }
+
+    @Override
+    public Runnable compile(List<Statement> statements) {
+        beginScope(ScopeDescriptor.of(statements));
+        StatementNode program = block(statements);
+        endScope();
+
+        int size = slots;
+        return () -> program.execute(new Object[size]);
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        return new UninitializedBinaryNode(compile(expression.getLeft()), compile(expression.getRight()),
+                expression.getOperator().getType(), expression.getOperator().getLine());
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return compile(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        if (expression.getValue() instanceof Double) return new NumberLiteralNode((double) expression.getValue());
+        return new LiteralNode(expression.getValue());
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        return new UninitializedNegateNode(compile(expression.getRight()), expression.getOperator().getLine());
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        if (!expression.isResolved()) {
+            return new FailNode(null, "Variable not found", expression.getName().getLine());
+        }
+        return new ReadNode(slotOf(expression.getDepth(), expression.getSlot()));
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        ExpressionNode value = compile(expression.getExpression());
+        int line = expression.getName().getLine();
+
+        if (!expression.isResolved()) {
+            return new FailNode(value, "Undefined variable '" + expression.getSymbol().getName() + "'.", line);
+        }
+
+        int slot = slotOf(expression.getDepth(), expression.getSlot());
+        return new AssignNode(value, slot, expression.isVerified(), keywords.get(slot), types.get(slot), line);
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        ExpressionNode left = compile(expression.getLeft());
+        ExpressionNode right = compile(expression.getRight());
+        if (expression.getOperator().getType() == TokenType.AND) return new AndNode(left, right);
+        return new OrNode(left, right);
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        compiled = new ExpressionStatementNode(compile(statement.getExpression()));
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        compiled = new PrintNode(output, compile(statement.getExpression()));
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        ExpressionNode value = statement.getExpression() != null ? compile(statement.getExpression()) : null;
+        compiled = new DeclareNode(value, slotOf(0, statement.getSlot()), statement.isVerified(),
+                statement.getType(), statement.getName().getLine());
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        // A block that declares nothing was resolved into the enclosing scope.
+        if (statement.getScope().size() == 0) {
+            compiled = block(statement.getStatement());
+            return;
+        }
+        beginScope(statement.getScope());
+        StatementNode block = block(statement.getStatement());
+        endScope();
+        compiled = block;
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        ExpressionNode condition = compile(statement.getCondition());
+        StatementNode thenDo = compile(statement.getThenDo());
+        StatementNode elseDo = statement.getElseDo() != null ? compile(statement.getElseDo()) : null;
+        compiled = new IfNode(condition, thenDo, elseDo);
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        compiled = new WhileNode(compile(statement.getCondition()), compile(statement.getBody()));
+    }
+
+    private ExpressionNode compile(Expression expression) {
+        return (ExpressionNode) expression.accept(this);
+    }
+
+    private StatementNode compile(Statement statement) {
+        statement.accept(this);
+        return compiled;
+    }
+
+    private StatementNode block(List<Statement> statements) {
+        StatementNode[] nodes = new StatementNode[statements.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compile(statements.get(i));
+        }
+        return new BlockNode(nodes);
+    }
+
+    private void beginScope(ScopeDescriptor scope) {
+        bases.add(slots);
+        for (int slot = 0; slot < scope.size(); slot++) {
+            keywords.add(scope.getKeyword(slot));
+            types.add(scope.getType(slot));
+        }
+        slots += scope.size();
+    }
+
+    private void endScope() {
+        bases.remove(bases.size() - 1);
+    }
+
+    private int slotOf(int depth, int slot) {
+        return bases.get(bases.size() - 1 - depth) + slot;
+    }
+}
@@ -0,0 +1,13 @@
+package nodes;
+
+class NumberAddNode extends NumberArithmeticNode {
+
+    NumberAddNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    double compute(double leftValue, double rightValue) {
+        return leftValue + rightValue;
+    }
+}
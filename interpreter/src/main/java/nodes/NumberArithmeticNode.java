@@ -0,0 +1,37 @@
+package nodes;
+
+/** Arithmetic on operands that have been numbers so far, computed without boxing them. */
+abstract class NumberArithmeticNode extends BinaryNode {
+
+    NumberArithmeticNode(BinaryNode node) {
+        super(node);
+    }
+
+    abstract double compute(double leftValue, double rightValue);
+
+    @Override
+    Object execute(Object[] frame) {
+        try {
+            return executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            return e.getResult();
+        }
+    }
+
+    @Override
+    double executeDouble(Object[] frame) throws UnexpectedResultException {
+        double leftValue;
+        try {
+            leftValue = left.executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            throw new UnexpectedResultException(generalize(e.getResult(), right.execute(frame)));
+        }
+        double rightValue;
+        try {
+            rightValue = right.executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            throw new UnexpectedResultException(generalize(leftValue, e.getResult()));
+        }
+        return compute(leftValue, rightValue);
+    }
+}
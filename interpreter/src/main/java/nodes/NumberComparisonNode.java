@@ -0,0 +1,28 @@
+package nodes;
+
+/** A comparison of operands that have been numbers so far, computed without boxing them. */
+abstract class NumberComparisonNode extends BinaryNode {
+
+    NumberComparisonNode(BinaryNode node) {
+        super(node);
+    }
+
+    abstract boolean compare(double leftValue, double rightValue);
+
+    @Override
+    Object execute(Object[] frame) {
+        double leftValue;
+        try {
+            leftValue = left.executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            return generalize(e.getResult(), right.execute(frame));
+        }
+        double rightValue;
+        try {
+            rightValue = right.executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            return generalize(leftValue, e.getResult());
+        }
+        return compare(leftValue, rightValue);
+    }
+}
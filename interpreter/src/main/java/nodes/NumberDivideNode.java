@@ -0,0 +1,13 @@
+package nodes;
+
+class NumberDivideNode extends NumberArithmeticNode {
+
+    NumberDivideNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    double compute(double leftValue, double rightValue) {
+        return leftValue / rightValue;
+    }
+}
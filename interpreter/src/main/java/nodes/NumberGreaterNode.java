@@ -0,0 +1,13 @@
+package nodes;
+
+class NumberGreaterNode extends NumberComparisonNode {
+
+    NumberGreaterNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    boolean compare(double leftValue, double rightValue) {
+        return leftValue > rightValue;
+    }
+}
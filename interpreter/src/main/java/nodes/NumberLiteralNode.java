@@ -0,0 +1,22 @@
+package nodes;
+
+class NumberLiteralNode extends ExpressionNode {
+
+    private final double value;
+    private final Double boxed;
+
+    NumberLiteralNode(double value) {
+        this.value = value;
+        this.boxed = value;
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        return boxed;
+    }
+
+    @Override
+    double executeDouble(Object[] frame) {
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package nodes;
+
+class NumberNegateNode extends NegateNode {
+
+    NumberNegateNode(NegateNode node) {
+        super(node);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        try {
+            return executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            return e.getResult();
+        }
+    }
+
+    @Override
+    double executeDouble(Object[] frame) throws UnexpectedResultException {
+        try {
+            return -operand.executeDouble(frame);
+        } catch (UnexpectedResultException e) {
+            throw new UnexpectedResultException(generalize(e.getResult()));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package nodes;
+
+class NumberSubtractNode extends NumberArithmeticNode {
+
+    NumberSubtractNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    double compute(double leftValue, double rightValue) {
+        return leftValue - rightValue;
+    }
+}
@@ -0,0 +1,29 @@
+package nodes;
+
+import environment.Operations;
+
+/** An or: the right side only runs when the left one is not truthy. */
+class OrNode extends ExpressionNode {
+
+    private ExpressionNode left;
+    private ExpressionNode right;
+
+    OrNode(ExpressionNode left, ExpressionNode right) {
+        this.left = adopt(left);
+        this.right = adopt(right);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        return Operations.isTruthy(left.execute(frame)) || Operations.isTruthy(right.execute(frame));
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        if (left == child) {
+            left = (ExpressionNode) replacement;
+        } else if (right == child) {
+            right = (ExpressionNode) replacement;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package nodes;
+
+import output.Output;
+
+class PrintNode extends StatementNode {
+
+    private final Output output;
+    private ExpressionNode value;
+
+    PrintNode(Output output, ExpressionNode value) {
+        this.output = output;
+        this.value = adopt(value);
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        output.println(value.execute(frame));
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        value = (ExpressionNode) replacement;
+    }
+}
@@ -0,0 +1,15 @@
+package nodes;
+
+class ReadNode extends ExpressionNode {
+
+    private final int slot;
+
+    ReadNode(int slot) {
+        this.slot = slot;
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        return frame[slot];
+    }
+}
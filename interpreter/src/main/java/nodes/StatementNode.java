@@ -0,0 +1,6 @@
+package nodes;
+
+abstract class StatementNode extends Node {
+
+    abstract void execute(Object[] frame);
+}
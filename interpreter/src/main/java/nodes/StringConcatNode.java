@@ -0,0 +1,20 @@
+package nodes;
+
+import value.Rope;
+
+class StringConcatNode extends BinaryNode {
+
+    StringConcatNode(BinaryNode node) {
+        super(node);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        Object leftValue = left.execute(frame);
+        Object rightValue = right.execute(frame);
+        if (Rope.isString(leftValue) && Rope.isString(rightValue)) {
+            return Rope.concat(leftValue, rightValue);
+        }
+        return generalize(leftValue, rightValue);
+    }
+}
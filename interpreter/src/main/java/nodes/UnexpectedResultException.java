@@ -0,0 +1,16 @@
+package nodes;
+
+/** Thrown by a typed execute method when the value is not of its type. The value is not lost: it is carried along. */
+class UnexpectedResultException extends Exception {
+
+    private final Object result;
+
+    UnexpectedResultException(Object result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    Object getResult() {
+        return result;
+    }
+}
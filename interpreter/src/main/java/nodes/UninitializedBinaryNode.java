@@ -0,0 +1,37 @@
+package nodes;
+
+import token.TokenType;
+import value.Rope;
+
+class UninitializedBinaryNode extends BinaryNode {
+
+    UninitializedBinaryNode(ExpressionNode left, ExpressionNode right, TokenType operator, int line) {
+        super(left, right, operator, line);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        Object leftValue = left.execute(frame);
+        Object rightValue = right.execute(frame);
+        return replace(specialize(leftValue, rightValue)).apply(leftValue, rightValue);
+    }
+
+    private BinaryNode specialize(Object leftValue, Object rightValue) {
+        if (leftValue instanceof Double && rightValue instanceof Double) {
+            switch (operator) {
+                case PLUS: return new NumberAddNode(this);
+                case MINUS: return new NumberSubtractNode(this);
+                case STAR: return new NumberMultiplyNode(this);
+                case SLASH: return new NumberDivideNode(this);
+                case GREATER: return new NumberGreaterNode(this);
+                case GREATER_EQUAL: return new NumberGreaterEqualNode(this);
+                case LESS: return new NumberLessNode(this);
+                case LESS_EQUAL: return new NumberLessEqualNode(this);
+            }
+        }
+        if (operator == TokenType.PLUS && Rope.isString(leftValue) && Rope.isString(rightValue)) {
+            return new StringConcatNode(this);
+        }
+        return new GenericBinaryNode(this);
+    }
+}
@@ -0,0 +1,17 @@
+package nodes;
+
+import environment.Operations;
+
+class UninitializedNegateNode extends NegateNode {
+
+    UninitializedNegateNode(ExpressionNode operand, int line) {
+        super(operand, line);
+    }
+
+    @Override
+    Object execute(Object[] frame) {
+        Object value = operand.execute(frame);
+        replace(value instanceof Double ? new NumberNegateNode(this) : new GenericNegateNode(this));
+        return Operations.negate(value, line);
+    }
+}
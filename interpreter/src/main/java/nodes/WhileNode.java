@@ -0,0 +1,27 @@
+package nodes;
+
+import environment.Operations;
+
+class WhileNode extends StatementNode {
+
+    private ExpressionNode condition;
+    private final StatementNode body;
+
+    WhileNode(ExpressionNode condition, StatementNode body) {
+        this.condition = adopt(condition);
+        this.body = adopt(body);
+    }
+
+    @Override
+    void execute(Object[] frame) {
+        // The condition is read from the field on every pass, since it may have replaced itself.
+        while (Operations.isTruthy(condition.execute(frame))) {
+            body.execute(frame);
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node child, Node replacement) {
+        condition = (ExpressionNode) replacement;
+    }
+}
@@ -0,0 +1,11 @@
+package optimizer;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface Optimizer {
+
+    /** Rewrites the program into one that does the same with less work at runtime, before it is resolved. */
+    List<Statement> optimize(List<Statement> statements);
+}
@@ -0,0 +1,168 @@
+package optimizer;
+
+import expression.Expression;
+import expression.impl.*;
+import format.DoubleFormatter;
+import statement.Statement;
+import statement.impl.*;
+import token.Token;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static token.TokenType.OR;
+
+/**
+ * Folds constant subtrees into a single literal and drops grouping parentheses, which only mattered while
+ * parsing. Only operations that cannot fail are folded: anything that would throw is left in place so it
+ * still fails at runtime, on its own line.
+ */
+public class OptimizerImplementation implements Optimizer, ExpressionVisitor, StatementVisitor {
+
+    private Statement optimized;
+
+    @Override
+    public List<Statement> optimize(List<Statement> statements) {
+        List<Statement> result = new ArrayList<>(statements.size());
+        for (Statement statement : statements) {
+            result.add(optimize(statement));
+        }
+        return result;
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        Expression left = optimize(expression.getLeft());
+        Expression right = optimize(expression.getRight());
+
+        if (left instanceof LiteralExpression && right instanceof LiteralExpression) {
+            Object value = fold(expression.getOperator(), ((LiteralExpression) left).getValue(), ((LiteralExpression) right).getValue());
+            if (value != null) return new LiteralExpression(value);
+        }
+        return new BinaryExpression(left, right, expression.getOperator());
+    }
+
+    // The value of the operation, or null when it has to be left for runtime.
+    private Object fold(Token operator, Object left, Object right) {
+        if (left instanceof Double && right instanceof Double) {
+            double l = (double) left;
+            double r = (double) right;
+            switch (operator.getType()) {
+                case GREATER: return l > r;
+                case GREATER_EQUAL: return l >= r;
+                case LESS: return l < r;
+                case LESS_EQUAL: return l <= r;
+                case MINUS: return l - r;
+                case PLUS: return l + r;
+                case SLASH: return l / r;
+                case STAR: return l * r;
+            }
+            return null;
+        }
+
+        switch (operator.getType()) {
+            case PLUS:
+                // Same concatenation the interpreter does.
+                return DoubleFormatter.stringify(left) + DoubleFormatter.stringify(right);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return optimize(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        Expression right = optimize(expression.getRight());
+
+        if (right instanceof LiteralExpression && ((LiteralExpression) right).getValue() instanceof Double) {
+            switch (expression.getOperator().getType()) {
+                case MINUS: return new LiteralExpression(-(double) ((LiteralExpression) right).getValue());
+            }
+        }
+        return new UnaryExpression(expression.getOperator(), right);
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        return new AssigmentExpression(expression.getName(), expression.getSymbol(), optimize(expression.getExpression()));
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        Expression left = optimize(expression.getLeft());
+        Expression right = optimize(expression.getRight());
+
+        if (left instanceof LiteralExpression) {
+            boolean value = isTruthy(((LiteralExpression) left).getValue());
+            // When the left side decides, the right one never runs and can go.
+            if (value == (expression.getOperator().getType() == OR)) return new LiteralExpression(value);
+            if (right instanceof LiteralExpression) return new LiteralExpression(isTruthy(((LiteralExpression) right).getValue()));
+        }
+        return new LogicalExpression(left, right, expression.getOperator());
+    }
+
+    private boolean isTruthy(Object value) {
+        if (value == null) return false;
+        if (value instanceof Boolean) return (boolean) value;
+        return true;
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        optimized = new ExpressionStatement(optimize(statement.getExpression()));
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        optimized = new PrintStatement(optimize(statement.getExpression()));
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        Expression expression = statement.getExpression() != null ? optimize(statement.getExpression()) : null;
+        optimized = new VariableStatement(statement.getName(), statement.getSymbol(), expression, statement.getType(), statement.getKeyWord());
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        optimized = new BlockStatement(optimize(statement.getStatement()));
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        Expression condition = optimize(statement.getCondition());
+        Statement thenDo = optimize(statement.getThenDo());
+        Statement elseDo = statement.getElseDo() != null ? optimize(statement.getElseDo()) : null;
+        optimized = new IfStatement(condition, thenDo, elseDo);
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        optimized = new WhileStatement(optimize(statement.getCondition()), optimize(statement.getBody()));
+    }
+
+    private Expression optimize(Expression expression) {
+        return (Expression) expression.accept(this);
+    }
+
+    private Statement optimize(Statement statement) {
+        statement.accept(this);
+        return optimized;
+    }
+}
@@ -0,0 +1,131 @@
+package output;
+
+import format.DoubleFormatter;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Collects printed lines in one large buffer and hands them to the sink a buffer at a time, instead of a
+ * synchronized write per line. The buffer is drained whenever it fills up and on {@link #flush()}; a line
+ * buffered output also flushes after every line, which is what an interactive terminal expects.
+ */
+public class BufferedOutput implements Output {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer sink;
+    private final char[] buffer;
+    private final boolean lineBuffered;
+    private int size = 0;
+
+    public BufferedOutput(Writer sink) {
+        this(sink, DEFAULT_CAPACITY, false);
+    }
+
+    public BufferedOutput(Writer sink, int capacity, boolean lineBuffered) {
+        this.sink = sink;
+        // Room for at least one number, which is formatted in place.
+        this.buffer = new char[Math.max(capacity, DoubleFormatter.MAX_LENGTH)];
+        this.lineBuffered = lineBuffered;
+    }
+
+    /**
+     * Standard output, line buffered when attached to a terminal. Closing it only flushes, standard output
+     * stays open.
+     */
+    public static BufferedOutput standardOutput() {
+        Writer sink = new OutputStreamWriter(System.out) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return new BufferedOutput(sink, DEFAULT_CAPACITY, System.console() != null);
+    }
+
+    // Writes straight to the file's channel; the file is created or truncated.
+    public static BufferedOutput toFile(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedOutput(Channels.newWriter(channel, Charset.defaultCharset().newEncoder(), DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public void println(Object value) {
+        if (value instanceof Double) {
+            println((double) value);
+            return;
+        }
+        write(String.valueOf(value));
+        endLine();
+    }
+
+    @Override
+    public void println(double value) {
+        reserve(DoubleFormatter.MAX_LENGTH);
+        size = DoubleFormatter.format(value, buffer, size);
+        endLine();
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        drain();
+        try {
+            sink.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void endLine() {
+        write(LINE_SEPARATOR);
+        if (lineBuffered) flush();
+    }
+
+    private void write(String text) {
+        int length = text.length();
+        if (length > buffer.length) {
+            drain();
+            try {
+                sink.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        reserve(length);
+        text.getChars(0, length, buffer, size);
+        size += length;
+    }
+
+    // Makes room for that many characters at the end of the buffer.
+    private void reserve(int length) {
+        if (length > buffer.length - size) drain();
+    }
+
+    private void drain() {
+        if (size == 0) return;
+        try {
+            sink.write(buffer, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,17 @@
+package output;
+
+/**
+ * Where print statements write to. Implementations may hold on to what is printed until {@link #flush()},
+ * so whoever creates one flushes or closes it once the program is done, even when it fails.
+ */
+public interface Output {
+
+    void println(Object value);
+
+    // Numbers are written as they are, without boxing them first.
+    void println(double value);
+
+    void flush();
+
+    void close();
+}
@@ -0,0 +1,11 @@
+package resolver;
+
+import statement.Statement;
+
+import java.util.List;
+
+public interface Resolver {
+
+    /** Binds every variable use to the scope depth and slot of its declaration, before the program runs. */
+    void resolve(List<Statement> statements);
+}
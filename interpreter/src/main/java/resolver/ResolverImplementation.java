@@ -0,0 +1,257 @@
+package resolver;
+
+import expression.Expression;
+import expression.impl.*;
+import statement.Statement;
+import statement.impl.*;
+import token.Symbol;
+import token.TokenType;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static token.TokenType.*;
+
+/**
+ * Scopes can be resolved statically since PrintScript has no functions: a declaration gets the next slot
+ * of the scope it is in, and a use is bound to the innermost declaration of that name seen so far, which
+ * is the one the environment chain would have found at runtime. Uses that bind to nothing are left
+ * unresolved and fail when they are executed.
+ *
+ * Each expression also gets the type its value is known to have, when that can be told from literals and
+ * declared variable types. A variable declared without an initializer may still hold null.
+ */
+public class ResolverImplementation implements Resolver, ExpressionVisitor, StatementVisitor {
+
+    private List<Scope> scopes = new ArrayList<>();
+    // Names assigned or declared in each loop being resolved, innermost last.
+    private List<Set<Symbol>> loops = new ArrayList<>();
+
+    @Override
+    public void resolve(List<Statement> statements) {
+        beginScope();
+        resolveStatements(statements);
+        endScope();
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        TokenType left = resolve(expression.getLeft());
+        TokenType right = resolve(expression.getRight());
+
+        switch (expression.getOperator().getType()) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return BOOLEAN;
+            case PLUS:
+                // Anything that is not two numbers gets concatenated.
+                if (left == NUMBER_TYPE && right == NUMBER_TYPE) return NUMBER_TYPE;
+                if (left == STRING_TYPE || left == BOOLEAN || right == STRING_TYPE || right == BOOLEAN) return STRING_TYPE;
+                return null;
+            default:
+                return NUMBER_TYPE;
+        }
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        return resolve(expression.getExpression());
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        Object value = expression.getValue();
+        if (value instanceof Double) return NUMBER_TYPE;
+        if (value instanceof String) return STRING_TYPE;
+        if (value instanceof Boolean) return BOOLEAN;
+        return null;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        resolve(expression.getRight());
+        return NUMBER_TYPE;
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        VariableStatement declaration = lookup(expression.getSymbol());
+        if (declaration == null) return null;
+
+        expression.resolve(depthOf(expression.getSymbol()), declaration.getSlot());
+        return declaration.getType();
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        resolve(expression.getExpression());
+        changed(expression.getSymbol());
+        VariableStatement declaration = lookup(expression.getSymbol());
+        if (declaration == null) return null;
+
+        // Only a value of the declared type gets through the assignment.
+        expression.resolve(depthOf(expression.getSymbol()), declaration.getSlot());
+        return declaration.getType();
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        resolve(expression.getLeft());
+        resolve(expression.getRight());
+        // Whatever the operands are, only whether they are truthy comes out.
+        return BOOLEAN;
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        resolve(statement.getExpression());
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        resolve(statement.getExpression());
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        // The initializer runs before the name is declared.
+        if (statement.getExpression() != null) {
+            resolve(statement.getExpression());
+        }
+
+        changed(statement.getSymbol());
+        Scope scope = scope(0);
+        statement.setSlot(scope.count++);
+        scope.declarations.put(statement.getSymbol(), statement);
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        // A block that declares nothing gets no frame of its own.
+        if (statement.getScope().size() == 0) {
+            resolveStatements(statement.getStatement());
+            return;
+        }
+        beginScope();
+        resolveStatements(statement.getStatement());
+        endScope();
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        resolve(statement.getCondition());
+        statement.getThenDo().accept(this);
+        if (statement.getElseDo() != null) {
+            statement.getElseDo().accept(this);
+        }
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        loops.add(new HashSet<>());
+        resolve(statement.getCondition());
+        statement.getBody().accept(this);
+        Set<Symbol> changed = loops.remove(loops.size() - 1);
+
+        if (invariant(statement, statement.getCondition(), changed)) {
+            markInvariant(statement, statement.getCondition());
+        }
+    }
+
+    /**
+     * Whether the expression keeps its value while the loop runs, that is, reads no variable the loop
+     * changes. The largest invariant parts of a changing expression are marked on the loop.
+     */
+    private boolean invariant(WhileStatement loop, Expression expression, Set<Symbol> changed) {
+        if (expression instanceof LiteralExpression) return true;
+        if (expression instanceof VariableExpression) {
+            VariableExpression variable = (VariableExpression) expression;
+            return variable.isResolved() && !changed.contains(variable.getSymbol());
+        }
+        if (expression instanceof GroupingExpression) return invariant(loop, ((GroupingExpression) expression).getExpression(), changed);
+        if (expression instanceof UnaryExpression) return invariant(loop, ((UnaryExpression) expression).getRight(), changed);
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            boolean left = invariant(loop, binary.getLeft(), changed);
+            boolean right = invariant(loop, binary.getRight(), changed);
+            if (left && right) return true;
+            if (left) markInvariant(loop, binary.getLeft());
+            if (right) markInvariant(loop, binary.getRight());
+            return false;
+        }
+        if (expression instanceof LogicalExpression) {
+            LogicalExpression logical = (LogicalExpression) expression;
+            boolean left = invariant(loop, logical.getLeft(), changed);
+            boolean right = invariant(loop, logical.getRight(), changed);
+            if (left && right) return true;
+            if (left) markInvariant(loop, logical.getLeft());
+            if (right) markInvariant(loop, logical.getRight());
+            return false;
+        }
+        if (expression instanceof AssigmentExpression) invariant(loop, ((AssigmentExpression) expression).getExpression(), changed);
+        return false;
+    }
+
+    // Literals and variables are read as fast as a saved value would be.
+    private void markInvariant(WhileStatement loop, Expression expression) {
+        if (expression instanceof LiteralExpression || expression instanceof VariableExpression) return;
+        loop.addInvariant(expression);
+    }
+
+    // Every loop the name is changed in, including the outer ones.
+    private void changed(Symbol name) {
+        for (Set<Symbol> changed : loops) {
+            changed.add(name);
+        }
+    }
+
+    private void resolveStatements(List<Statement> statements) {
+        for (Statement statement : statements) {
+            statement.accept(this);
+        }
+    }
+
+    private TokenType resolve(Expression expression) {
+        TokenType type = (TokenType) expression.accept(this);
+        expression.setStaticType(type);
+        return type;
+    }
+
+    // How many scopes out the innermost declaration of the name is, or -1 when there is none.
+    private int depthOf(Symbol name) {
+        for (int depth = 0; depth < scopes.size(); depth++) {
+            if (scope(depth).declarations.containsKey(name)) return depth;
+        }
+        return -1;
+    }
+
+    private VariableStatement lookup(Symbol name) {
+        int depth = depthOf(name);
+        return depth >= 0 ? scope(depth).declarations.get(name) : null;
+    }
+
+    private Scope scope(int depth) {
+        return scopes.get(scopes.size() - 1 - depth);
+    }
+
+    private void beginScope() {
+        scopes.add(new Scope());
+    }
+
+    private void endScope() {
+        scopes.remove(scopes.size() - 1);
+    }
+
+    private static class Scope {
+        private Map<Symbol, VariableStatement> declarations = new HashMap<>();
+        private int count = 0;
+    }
+}
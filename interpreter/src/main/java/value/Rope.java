@@ -0,0 +1,97 @@
+package value;
+
+import format.DoubleFormatter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A string built by concatenation. Concatenating only links the two pieces, and the characters are copied
+ * once, when the text is printed, so building a string piece by piece is linear instead of quadratic. Short
+ * results are still copied right away.
+ *
+ * PrintScript strings are either a String or a Rope; see {@link #isString(Object)}.
+ */
+public final class Rope implements CharSequence {
+
+    // Up to this length copying is cheaper than keeping the pieces apart.
+    private static final int FLAT_LENGTH = 64;
+
+    // A String or a Rope each, until flattened.
+    private CharSequence left;
+    private CharSequence right;
+    private final int length;
+    private String flat;
+
+    private Rope(CharSequence left, CharSequence right) {
+        this.left = left;
+        this.right = right;
+        this.length = Math.addExact(left.length(), right.length());
+    }
+
+    public static boolean isString(Object value) {
+        return value instanceof String || value instanceof Rope;
+    }
+
+    /**
+     * What PLUS does with anything that is not two numbers. Fails on null like calling toString on it.
+     */
+    public static CharSequence concat(Object left, Object right) {
+        CharSequence leftText = text(left);
+        CharSequence rightText = text(right);
+        if (leftText.length() + rightText.length() <= FLAT_LENGTH) {
+            return leftText.toString().concat(rightText.toString());
+        }
+        return new Rope(leftText, rightText);
+    }
+
+    private static CharSequence text(Object value) {
+        if (value instanceof String || value instanceof Rope) return (CharSequence) value;
+        return DoubleFormatter.stringify(value);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (flat == null) flatten();
+        return flat;
+    }
+
+    // Fills the characters in from the end, so the usual chain of appends, which leans left, needs no stack.
+    private void flatten() {
+        char[] chars = new char[length];
+        Deque<CharSequence> pending = new ArrayDeque<>();
+        int end = length;
+        CharSequence piece = this;
+        while (true) {
+            if (piece instanceof Rope && ((Rope) piece).flat == null) {
+                Rope rope = (Rope) piece;
+                pending.push(rope.left);
+                piece = rope.right;
+                continue;
+            }
+            String text = piece.toString();
+            end -= text.length();
+            text.getChars(0, text.length(), chars, end);
+            if (pending.isEmpty()) break;
+            piece = pending.pop();
+        }
+        flat = new String(chars);
+        left = null;
+        right = null;
+    }
+}
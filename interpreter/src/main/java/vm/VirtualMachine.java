@@ -0,0 +1,8 @@
+package vm;
+
+import compiler.Chunk;
+
+public interface VirtualMachine {
+
+    void run(Chunk chunk);
+}
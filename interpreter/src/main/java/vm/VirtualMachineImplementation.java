@@ -0,0 +1,209 @@
+package vm;
+
+import compiler.Chunk;
+import environment.Assignments;
+import environment.Operations;
+import exception.InterpretException;
+import output.Output;
+import value.Rope;
+
+import java.util.Arrays;
+
+import static compiler.OpCode.*;
+
+/**
+ * Runs bytecode in a single loop over the code array. The stack is a pair of arrays sharing one stack
+ * pointer: boxed values live in one and unboxed numbers in the other, at the same index.
+ */
+public class VirtualMachineImplementation implements VirtualMachine {
+
+    private static final int INITIAL_STACK_SIZE = 64;
+
+    private Object[] stack = new Object[INITIAL_STACK_SIZE];
+    private double[] numbers = new double[INITIAL_STACK_SIZE];
+    private int sp = 0;
+
+    private final Output output;
+
+    public VirtualMachineImplementation(Output output) {
+        this.output = output;
+    }
+
+    @Override
+    public void run(Chunk chunk) {
+        int[] code = chunk.getCode();
+        Object[] constants = chunk.getConstants();
+        double[] pool = chunk.getNumbers();
+        Object[] slots = new Object[chunk.getSlotCount()];
+        int pc = 0;
+
+        while (true) {
+            // Every instruction pushes at most one value.
+            if (sp == stack.length) grow();
+
+            switch (code[pc++]) {
+                case CONSTANT:
+                    stack[sp++] = constants[code[pc++]];
+                    break;
+                case NUMBER:
+                    numbers[sp++] = pool[code[pc++]];
+                    break;
+                case BOX:
+                    stack[sp - 1] = numbers[sp - 1];
+                    break;
+                case UNBOX:
+                    unbox(code[pc], code[pc + 1], code[pc + 2]);
+                    pc += 3;
+                    break;
+                case UNBOX_OPERAND: {
+                    Operations.checkNumberOperand(stack[sp - 1], code[pc++]);
+                    numbers[sp - 1] = (double) stack[sp - 1];
+                    break;
+                }
+                case POP:
+                    stack[--sp] = null;
+                    break;
+
+                case LOAD:
+                    stack[sp++] = slots[code[pc++]];
+                    break;
+                case STORE:
+                    slots[code[pc++]] = stack[sp - 1];
+                    break;
+                case ASSIGN: {
+                    int slot = code[pc++];
+                    Assignments.check(chunk.getKeyword(slot), chunk.getType(slot), code[pc++], stack[sp - 1]);
+                    slots[slot] = stack[sp - 1];
+                    break;
+                }
+                case DEFINE:
+                    slots[code[pc++]] = stack[--sp];
+                    break;
+                case DEFINE_CHECKED: {
+                    int slot = code[pc++];
+                    Operations.declare(stack[sp - 1], chunk.getType(slot), code[pc++]);
+                    slots[slot] = stack[--sp];
+                    break;
+                }
+
+                case ADD:
+                case SUBTRACT:
+                case MULTIPLY:
+                case DIVIDE:
+                case GREATER:
+                case GREATER_EQUAL:
+                case LESS:
+                case LESS_EQUAL: {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = binary(code[pc - 1], stack[sp - 1], right, code[pc++]);
+                    break;
+                }
+                case NEGATE: {
+                    stack[sp - 1] = Operations.negate(stack[sp - 1], code[pc++]);
+                    break;
+                }
+
+                case ADD_NUMBER:
+                    sp--;
+                    numbers[sp - 1] += numbers[sp];
+                    break;
+                case SUBTRACT_NUMBER:
+                    sp--;
+                    numbers[sp - 1] -= numbers[sp];
+                    break;
+                case MULTIPLY_NUMBER:
+                    sp--;
+                    numbers[sp - 1] *= numbers[sp];
+                    break;
+                case DIVIDE_NUMBER:
+                    sp--;
+                    numbers[sp - 1] /= numbers[sp];
+                    break;
+                case GREATER_NUMBER:
+                    sp--;
+                    stack[sp - 1] = numbers[sp - 1] > numbers[sp];
+                    break;
+                case GREATER_EQUAL_NUMBER:
+                    sp--;
+                    stack[sp - 1] = numbers[sp - 1] >= numbers[sp];
+                    break;
+                case LESS_NUMBER:
+                    sp--;
+                    stack[sp - 1] = numbers[sp - 1] < numbers[sp];
+                    break;
+                case LESS_EQUAL_NUMBER:
+                    sp--;
+                    stack[sp - 1] = numbers[sp - 1] <= numbers[sp];
+                    break;
+                case NEGATE_NUMBER:
+                    numbers[sp - 1] = -numbers[sp - 1];
+                    break;
+
+                case PRINT:
+                    output.println(stack[--sp]);
+                    stack[sp] = null;
+                    break;
+                case PRINT_NUMBER:
+                    output.println(numbers[--sp]);
+                    break;
+                case JUMP:
+                    pc = code[pc];
+                    break;
+                case JUMP_IF_FALSE: {
+                    Object condition = stack[--sp];
+                    stack[sp] = null;
+                    pc = Operations.isTruthy(condition) ? pc + 1 : code[pc];
+                    break;
+                }
+                case FAIL:
+                    throw new InterpretException((String) constants[code[pc]], code[pc + 1]);
+                case RETURN:
+                    return;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+
+    // Number-typed operands hold a number or null. A null one fails just as the boxed operation would.
+    private void unbox(int operands, int operation, int line) {
+        int left = sp - 2;
+        int right = sp - 1;
+        if ((operands & LEFT) != 0 && !(stack[left] instanceof Double)
+                || (operands & RIGHT) != 0 && !(stack[right] instanceof Double)) {
+            Object leftValue = (operands & LEFT) != 0 ? stack[left] : (Object) numbers[left];
+            Object rightValue = (operands & RIGHT) != 0 ? stack[right] : (Object) numbers[right];
+            binary(operation, leftValue, rightValue, line);
+        }
+        if ((operands & LEFT) != 0) numbers[left] = (double) stack[left];
+        if ((operands & RIGHT) != 0) numbers[right] = (double) stack[right];
+    }
+
+    private Object binary(int operation, Object left, Object right, int line) {
+        if (operation == ADD) {
+            if (left instanceof Number && right instanceof Number) {
+                return (double) left + (double) right;
+            }
+            return Rope.concat(left, right);
+        }
+        Operations.checkNumberOperands(left, right, line);
+
+        double l = (double) left;
+        double r = (double) right;
+        switch (operation) {
+            case SUBTRACT: return l - r;
+            case MULTIPLY: return l * r;
+            case DIVIDE: return l / r;
+            case GREATER: return l > r;
+            case GREATER_EQUAL: return l >= r;
+            case LESS: return l < r;
+            case LESS_EQUAL: return l <= r;
+            default: throw new IllegalStateException("Not a binary operation: " + operation);
+        }
+    }
+
+    private void grow() {
+        stack = Arrays.copyOf(stack, stack.length * 2);
+        numbers = Arrays.copyOf(numbers, numbers.length * 2);
+    }
+}
@@ -0,0 +1,68 @@
+package checker;
+
+import exception.TypeException;
+import lexer.impl.LexerImplementation;
+import org.junit.Test;
+import parser.impl.ParserImplementation;
+import resolver.ResolverImplementation;
+import statement.Statement;
+import statement.impl.BlockStatement;
+import statement.impl.VariableStatement;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypeCheckerTest {
+
+    private static List<Statement> check(String source) {
+        List<Statement> statements = new ParserImplementation(new LexerImplementation(source).tokenStream()).parse();
+        new ResolverImplementation().resolve(statements);
+        new TypeCheckerImplementation().check(statements);
+        return statements;
+    }
+
+    private static String error(String source) {
+        try {
+            check(source);
+            return null;
+        } catch (TypeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    public void reportsAMismatchedInitializer() {
+        assertEquals("Expected a Number at line 2", error("print 1;\nlet x: number = \"one\";\n"));
+        assertEquals("Expected a String at line 3", error("let b: boolean = true;\n{\n    const s: string = b;\n}\n"));
+    }
+
+    @Test
+    public void reportsAMismatchedAssignment() {
+        assertEquals("Expected a number at line 3", error("let x: number = 1;\nprint x;\nx = true;\n"));
+        assertEquals("Expected a boolean at line 4", error("let b: boolean;\nwhile (b) {\n    print 1;\n    b = 2 + 3;\n}\n"));
+    }
+
+    @Test
+    public void reportsOperandsThatAreNotNumbers() {
+        assertEquals("Operand must be a number. at line 2", error("let s: string = \"a\";\nprint -s;\n"));
+        assertEquals("Operands must be numbers. at line 2", error("let s: string = \"a\";\nprint 2 * s;\n"));
+        assertEquals("Operands must be numbers. at line 3", error("let s: string = \"a\";\nprint 1;\nprint s - 1;\n"));
+        assertEquals("Operands must be numbers. at line 2", error("let b: boolean = false;\nif (b < 1) print 1;\n"));
+    }
+
+    @Test
+    public void cleanProgramIsVerified() {
+        List<Statement> statements = check(""
+                + "let x: number = 1 + 2 * 3;\n"
+                + "const s: string = \"x is \" + x;\n"
+                + "{\n"
+                + "    let b: boolean = x < 10;\n"
+                + "    x = -x;\n"
+                + "}\n"
+                + "print s;\n");
+        assertTrue(((VariableStatement) statements.get(0)).isVerified());
+        assertTrue(((VariableStatement) statements.get(1)).isVerified());
+        assertTrue(((VariableStatement) ((BlockStatement) statements.get(2)).getStatement().get(0)).isVerified());
+    }
+}
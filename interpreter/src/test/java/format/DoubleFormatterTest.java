@@ -0,0 +1,86 @@
+package format;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleFormatterTest {
+
+    private static final int SAMPLES = 200000;
+
+    @Test
+    public void printsLikeDoubleToStringWithoutIntegralFractions() {
+        assertEquals("0", DoubleFormatter.toString(0));
+        assertEquals("3", DoubleFormatter.toString(3));
+        assertEquals("-3", DoubleFormatter.toString(-3));
+        assertEquals("9999999", DoubleFormatter.toString(9999999));
+        assertEquals("1234.5", DoubleFormatter.toString(1234.5));
+        assertEquals("0.001", DoubleFormatter.toString(0.001));
+        assertEquals("9.999E-4", DoubleFormatter.toString(9.999e-4));
+        assertEquals("1.0E7", DoubleFormatter.toString(1e7));
+        assertEquals("1.0E9", DoubleFormatter.toString(1e9));
+        assertEquals("0.30000000000000004", DoubleFormatter.toString(0.1 + 0.2));
+        assertEquals("4.9E-324", DoubleFormatter.toString(Double.MIN_VALUE));
+        assertEquals("1.7976931348623157E308", DoubleFormatter.toString(Double.MAX_VALUE));
+        assertEquals("NaN", DoubleFormatter.toString(Double.NaN));
+        assertEquals("Infinity", DoubleFormatter.toString(Double.POSITIVE_INFINITY));
+        assertEquals("-Infinity", DoubleFormatter.toString(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void printsTheShortestDigits() {
+        // Double.toString before Java 19 prints 9.999999999999999E22 and 2.82879384806159008E17 for these.
+        assertEquals("1.0E23", DoubleFormatter.toString(1e23));
+        assertEquals("2.82879384806159E17", DoubleFormatter.toString(2.82879384806159E17));
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+            if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+            assertShortest(value);
+        }
+    }
+
+    @Test
+    public void readsBackAsTheSameDouble() {
+        Random random = new Random(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextInt(1 << 24) / 64.0;
+            if (Double.isNaN(value)) continue;
+            assertEquals(value, Double.parseDouble(DoubleFormatter.toString(value)), 0);
+        }
+    }
+
+    @Test
+    public void writesAtTheOffset() {
+        char[] buffer = new char[DoubleFormatter.MAX_LENGTH + 3];
+        buffer[0] = 'a';
+        buffer[1] = 'b';
+        int end = DoubleFormatter.format(-1234.5, buffer, 2);
+        assertEquals("ab-1234.5", new String(buffer, 0, end));
+    }
+
+    // No decimal with one digit fewer reads back as the value: neither neighbor at that precision does.
+    private static void assertShortest(double value) {
+        String text = DoubleFormatter.toString(value);
+        assertEquals(text, value, Double.parseDouble(text), 0);
+        int digits = significantDigits(text);
+        if (digits == 1) return;
+        BigDecimal exact = new BigDecimal(value);
+        for (RoundingMode mode : new RoundingMode[] { RoundingMode.FLOOR, RoundingMode.CEILING }) {
+            BigDecimal shorter = exact.round(new MathContext(digits - 1, mode));
+            assertNotEquals(text + " could be " + shorter, value, shorter.doubleValue(), 0);
+        }
+    }
+
+    private static int significantDigits(String text) {
+        int exponent = text.indexOf('E');
+        String digits = (exponent < 0 ? text : text.substring(0, exponent)).replace("-", "").replace(".", "");
+        digits = digits.replaceAll("^0+", "").replaceAll("0+$", "");
+        return Math.max(1, digits.length());
+    }
+}
@@ -0,0 +1,178 @@
+package interpreter;
+
+import engine.Engine;
+import lexer.impl.LexerImplementation;
+import org.junit.Test;
+import output.BufferedOutput;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every way of running a program must print the same thing, and fail with the same error after printing the
+ * same thing, as the tree-walking interpreter does.
+ */
+public class EngineEquivalenceTest {
+
+    private static final String[] MODES = { "compile-run", "jvm", "closure", "nodes" };
+
+    private static final String ARITHMETIC = ""
+            + "let a: number = 1234.5;\n"
+            + "let b: number = -7;\n"
+            + "print a + b * 2 - a / 4;\n"
+            + "print (a + b) * (a - b) / 3;\n"
+            + "print 0.1 + 0.2;\n"
+            + "print 1 / 3;\n"
+            + "print 10000000 * 10000000 * 1000000000;\n"
+            + "print 1 / 0;\n"
+            + "print -1 / 0;\n"
+            + "print 0.001 / 10;\n"
+            + "print a > b;\n"
+            + "print a <= b;\n";
+
+    private static final String STRINGS = ""
+            + "let s: string = \"x y\";\n"
+            + "const t: string = \"\";\n"
+            + "print s + t + 1 + 2.5;\n"
+            + "print 1 + 2 + s;\n"
+            + "print s + (1 + 2) + true;\n"
+            + "let joined: string = \"\";\n"
+            + "let i: number = 0;\n"
+            + "while (i < 5) {\n"
+            + "    joined = joined + i + \",\";\n"
+            + "    i = i + 1;\n"
+            + "}\n"
+            + "print joined;\n";
+
+    private static final String SCOPES = ""
+            + "let x: number = 1;\n"
+            + "{\n"
+            + "    let x: number = 2;\n"
+            + "    {\n"
+            + "        let x: string = \"three\";\n"
+            + "        print x;\n"
+            + "    }\n"
+            + "    x = x + 10;\n"
+            + "    print x;\n"
+            + "}\n"
+            + "{\n"
+            + "    x = x + 100;\n"
+            + "    const y: boolean = x > 50;\n"
+            + "    print y;\n"
+            + "}\n"
+            + "print x;\n";
+
+    private static final String CONTROL = ""
+            + "let n: number = 0;\n"
+            + "let total: number = 0;\n"
+            + "while (n < 30) {\n"
+            + "    if (n / 2 * 2 > n - 1 and n > 10 or n < 3) {\n"
+            + "        total = total + n;\n"
+            + "    } else if (n > 20) {\n"
+            + "        total = total - 1;\n"
+            + "    } else {\n"
+            + "        let inner: number = 0;\n"
+            + "        while (inner < n) inner = inner + 7;\n"
+            + "        total = total + inner;\n"
+            + "    }\n"
+            + "    n = n + 1;\n"
+            + "}\n"
+            + "print total;\n"
+            + "for (let i: number = 0; i < 3; i = i + 1) print i;\n"
+            + "print false or n > 0 and true;\n";
+
+    // Prints before failing at run time, when the uninitialized variable is read.
+    private static final String FAILING = ""
+            + "let x: number;\n"
+            + "print \"before\";\n"
+            + "{\n"
+            + "    print 1 + 2;\n"
+            + "}\n"
+            + "print x > 1;\n"
+            + "print \"after\";\n";
+
+    private static final String[] PROGRAMS = { ARITHMETIC, STRINGS, SCOPES, CONTROL, FAILING };
+
+    // A loop whose body, and a block inside it, compile to far more than the 64KB a method may hold, with
+    // variables of the body declared at its start and used at its end.
+    private static String hugeLoop() {
+        StringBuilder source = new StringBuilder()
+                .append("let total: number = 0;\n")
+                .append("let i: number = 0;\n")
+                .append("while (i < 20) {\n")
+                .append("    let step: number = i * 2;\n")
+                .append("    let label: string = \"i\" + i;\n")
+                .append("    const even: boolean = i / 2 * 2 > i - 1;\n");
+        for (int j = 0; j < 4000; j++) {
+            source.append("    total = total + (step - ").append(j % 7).append(") * 2;\n");
+        }
+        source.append("    {\n")
+                .append("        let inner: number = total;\n");
+        for (int j = 0; j < 4000; j++) {
+            source.append("        inner = inner - step + ").append(j % 5).append(";\n");
+        }
+        source.append("        total = inner;\n")
+                .append("    }\n")
+                .append("    print label + \" \" + even + \" \" + step;\n")
+                .append("    i = i + 1;\n")
+                .append("}\n")
+                .append("print total;\n");
+        return source.toString();
+    }
+
+    private static List<Statement> analyze(String source) {
+        return Engine.analyze(new ParserImplementation(new LexerImplementation(source).tokenStream()).parse());
+    }
+
+    // What the program printed, followed by the error it failed with, if any.
+    private static String run(String mode, String source) {
+        List<Statement> statements = analyze(source);
+        StringWriter printed = new StringWriter();
+        BufferedOutput out = new BufferedOutput(printed);
+        String error = "";
+        try {
+            Engine.forMode(mode).run(statements, out);
+        } catch (RuntimeException e) {
+            error = "failed: " + e.getMessage();
+        } finally {
+            out.flush();
+        }
+        return printed + error;
+    }
+
+    @Test
+    public void everyModePrintsWhatTheInterpreterPrints() {
+        for (String program : PROGRAMS) {
+            String expected = run("interpret", program);
+            for (String mode : MODES) {
+                assertEquals(mode + " running\n" + program, expected, run(mode, program));
+            }
+        }
+    }
+
+    @Test
+    public void bodiesTooBigForOneMethodRunTheSame() {
+        String program = hugeLoop();
+        String expected = run("interpret", program);
+        assertTrue(expected, expected.startsWith("i0 true 0\n"));
+        for (String mode : MODES) {
+            assertEquals(mode, expected, run(mode, program));
+        }
+    }
+
+    @Test
+    public void interpreterPrintsNumbersAsPrintScript() {
+        assertEquals("911.875\n507980.4166666667\n0.30000000000000004\n0.3333333333333333\n1.0E23\n"
+                + "Infinity\n-Infinity\n1.0E-4\ntrue\nfalse\n", run("interpret", ARITHMETIC));
+    }
+
+    @Test
+    public void failureKeepsWhatWasPrinted() {
+        String result = run("interpret", FAILING);
+        assertEquals("before\n3\nfailed: Operands must be numbers. at line 6", result);
+    }
+}
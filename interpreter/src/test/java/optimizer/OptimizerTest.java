@@ -0,0 +1,62 @@
+package optimizer;
+
+import expression.Expression;
+import expression.impl.BinaryExpression;
+import expression.impl.LiteralExpression;
+import expression.impl.VariableExpression;
+import lexer.impl.LexerImplementation;
+import org.junit.Test;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+import statement.impl.PrintStatement;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OptimizerTest {
+
+    // What the optimizer makes of the expression printed by the last statement of the source.
+    private static Expression optimized(String source) {
+        List<Statement> statements = new ParserImplementation(new LexerImplementation(source).tokenStream()).parse();
+        statements = new OptimizerImplementation().optimize(statements);
+        return ((PrintStatement) statements.get(statements.size() - 1)).getExpression();
+    }
+
+    private static Object folded(String expression) {
+        Expression optimized = optimized("print " + expression + ";");
+        assertTrue(expression + " was not folded", optimized instanceof LiteralExpression);
+        return ((LiteralExpression) optimized).getValue();
+    }
+
+    @Test
+    public void foldsNumberArithmetic() {
+        assertEquals(14.0, folded("2 * (3 + 4)"));
+        assertEquals(86400.0, folded("60 * 60 * 24"));
+        assertEquals(-3.0, folded("-(1 + 2)"));
+        assertEquals(true, folded("1 + 1 < 3"));
+    }
+
+    @Test
+    public void foldsConcatenation() {
+        assertEquals("total: 5", folded("\"total: \" + 5"));
+        assertEquals("a1.5true", folded("\"a\" + 1.5 + true"));
+    }
+
+    @Test
+    public void dropsGroupings() {
+        Expression optimized = optimized("let x: number = 1;\nprint ((x + (1)) * (x));");
+        BinaryExpression product = (BinaryExpression) optimized;
+        BinaryExpression sum = (BinaryExpression) product.getLeft();
+        assertTrue(sum.getLeft() instanceof VariableExpression);
+        assertTrue(sum.getRight() instanceof LiteralExpression);
+        assertTrue(product.getRight() instanceof VariableExpression);
+    }
+
+    @Test
+    public void leavesWhatWouldFailForRuntime() {
+        Expression optimized = optimized("print \"a\" - (1 + 2);");
+        BinaryExpression difference = (BinaryExpression) optimized;
+        assertEquals(3.0, ((LiteralExpression) difference.getRight()).getValue());
+    }
+}
@@ -0,0 +1,111 @@
+package output;
+
+import format.DoubleFormatter;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BufferedOutputTest {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    // Keeps each write and each flush apart, to see when the output hands its buffer over.
+    private static class RecordingWriter extends StringWriter {
+
+        private final List<String> writes = new ArrayList<>();
+        private int flushes;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            super.write(buffer, offset, length);
+            writes.add(new String(buffer, offset, length));
+        }
+
+        @Override
+        public void write(String text) {
+            super.write(text);
+            writes.add(text);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    @Test
+    public void holdsLinesUntilFlushed() {
+        RecordingWriter sink = new RecordingWriter();
+        BufferedOutput out = new BufferedOutput(sink);
+        out.println("one");
+        out.println(2.0);
+        out.println(true);
+        assertTrue(sink.writes.isEmpty());
+        out.flush();
+        assertEquals(1, sink.writes.size());
+        assertEquals("one" + NEWLINE + "2" + NEWLINE + "true" + NEWLINE, sink.toString());
+    }
+
+    @Test
+    public void drainsWhenTheBufferFills() {
+        RecordingWriter sink = new RecordingWriter();
+        BufferedOutput out = new BufferedOutput(sink, DoubleFormatter.MAX_LENGTH, false);
+        String line = "0123456789";
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            out.println(line);
+            expected.append(line).append(NEWLINE);
+        }
+        assertFalse(sink.writes.isEmpty());
+        for (String write : sink.writes) {
+            assertTrue(write, write.length() <= DoubleFormatter.MAX_LENGTH);
+        }
+        out.flush();
+        assertEquals(expected.toString(), sink.toString());
+    }
+
+    @Test
+    public void writesTextLongerThanTheBufferStraightThrough() {
+        RecordingWriter sink = new RecordingWriter();
+        BufferedOutput out = new BufferedOutput(sink, DoubleFormatter.MAX_LENGTH, false);
+        out.println("short");
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 10; i++) longText.append("long text ");
+        out.println(longText);
+        out.flush();
+        assertEquals("short" + NEWLINE + longText + NEWLINE, sink.toString());
+    }
+
+    @Test
+    public void lineBufferedFlushesEveryLine() {
+        RecordingWriter sink = new RecordingWriter();
+        BufferedOutput out = new BufferedOutput(sink, BufferedOutput.DEFAULT_CAPACITY, true);
+        out.println("first");
+        assertEquals("first" + NEWLINE, sink.toString());
+        assertEquals(1, sink.flushes);
+        out.println(-0.5);
+        assertEquals("first" + NEWLINE + "-0.5" + NEWLINE, sink.toString());
+        assertEquals(2, sink.flushes);
+    }
+
+    @Test
+    public void formatsNumbersInPlace() {
+        StringWriter sink = new StringWriter();
+        BufferedOutput out = new BufferedOutput(sink, DoubleFormatter.MAX_LENGTH, false);
+        double[] values = { 3, 1234.5, 0.1 + 0.2, 1e23, -1.0 / 0, 4.9E-324 };
+        StringBuilder expected = new StringBuilder();
+        for (double value : values) {
+            out.println(value);
+            out.println((Object) value);
+            expected.append(DoubleFormatter.toString(value)).append(NEWLINE);
+            expected.append(DoubleFormatter.toString(value)).append(NEWLINE);
+        }
+        out.close();
+        assertEquals(expected.toString(), sink.toString());
+        assertTrue(sink.toString().startsWith("3" + NEWLINE + "3" + NEWLINE + "1234.5" + NEWLINE));
+    }
+}
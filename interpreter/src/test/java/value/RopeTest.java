@@ -0,0 +1,63 @@
+package value;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RopeTest {
+
+    // Rope's FLAT_LENGTH.
+    private static final int FLAT_LENGTH = 64;
+
+    private static String repeat(char c, int times) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < times; i++) text.append(c);
+        return text.toString();
+    }
+
+    @Test
+    public void shortResultsAreCopiedRightAway() {
+        CharSequence joined = Rope.concat(repeat('a', FLAT_LENGTH - 1), "b");
+        assertTrue(joined instanceof String);
+        assertEquals(repeat('a', FLAT_LENGTH - 1) + "b", joined);
+
+        CharSequence longer = Rope.concat(repeat('a', FLAT_LENGTH), "b");
+        assertTrue(longer instanceof Rope);
+        assertEquals(FLAT_LENGTH + 1, longer.length());
+        assertEquals(repeat('a', FLAT_LENGTH) + "b", longer.toString());
+    }
+
+    @Test
+    public void numbersAndBooleansAreTheirPrintedText() {
+        assertEquals("x1.5", Rope.concat("x", 1.5).toString());
+        assertEquals("3true", Rope.concat(3.0, true).toString());
+        assertTrue(Rope.isString(Rope.concat(repeat('a', FLAT_LENGTH), 1.0)));
+    }
+
+    @Test
+    public void deepChainsFlattenWithoutOverflowingTheStack() {
+        int pieces = 1_000_000;
+        CharSequence appended = "";
+        CharSequence prepended = "";
+        for (int i = 0; i < pieces; i++) {
+            appended = Rope.concat(appended, i % 2 == 0 ? "a" : "b");
+            prepended = Rope.concat(i % 2 == 0 ? "a" : "b", prepended);
+        }
+        assertEquals(pieces, appended.length());
+        String flat = appended.toString();
+        assertEquals(pieces, flat.length());
+        assertTrue(flat.startsWith("abab") && flat.endsWith("abab"));
+        assertEquals(flat.length(), prepended.toString().length());
+        assertTrue(prepended.toString().startsWith("baba"));
+    }
+
+    @Test
+    public void flatteningOnceKeepsTheText() {
+        CharSequence rope = Rope.concat(repeat('a', FLAT_LENGTH), repeat('b', FLAT_LENGTH));
+        String first = rope.toString();
+        assertSame(first, rope.toString());
+        assertEquals('b', rope.charAt(FLAT_LENGTH));
+        assertEquals("ab", rope.subSequence(FLAT_LENGTH - 1, FLAT_LENGTH + 1));
+        assertEquals(first + first, Rope.concat(rope, rope).toString());
+    }
+}
@@ -1,6 +1,6 @@
 package exception;
 
-public class LexerException extends Exception {
+public class LexerException extends RuntimeException {
 
     private String message;
     private int line;
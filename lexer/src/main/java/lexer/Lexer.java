@@ -1,12 +1,20 @@
 package lexer;
 
 import exception.LexerException;
+import token.SymbolTable;
 import token.Token;
 
 import java.util.List;
 
 public interface Lexer {
 
-    List<Token> scanTokens() throws LexerException;
+    /** Scans the whole source at once, failing with a {@link LexerException} on the first bad token. */
+    List<Token> scanTokens();
+
+    /** Tokens are scanned on demand as the stream is read, instead of all at once. */
+    TokenStream tokenStream();
+
+    /** Table the identifiers of the scanned tokens are interned in. */
+    SymbolTable getSymbolTable();
 
 }
@@ -0,0 +1,13 @@
+package lexer;
+
+import token.Token;
+
+public interface TokenStream {
+
+    /** Consumes and returns the next token. Once the EOF token is reached it is returned on every call. */
+    Token next();
+
+    /** Returns the token {@code k} positions ahead without consuming anything, {@code peek(0)} being the next one. */
+    Token peek(int k);
+
+}
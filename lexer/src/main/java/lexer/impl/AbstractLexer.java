@@ -0,0 +1,345 @@
+package lexer.impl;
+
+import exception.LexerException;
+import lexer.Lexer;
+import lexer.TokenStream;
+import token.Token;
+import token.SymbolTable;
+import token.TokenBuffer;
+import token.TokenType;
+
+import java.util.List;
+
+import static token.TokenType.*;
+
+/**
+ * Scanning rules shared by every lexer. Subclasses only decide where the characters come from:
+ * newlines reach the scanner as a single {@code '\n'} per line break.
+ */
+abstract class AbstractLexer implements Lexer {
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    // Powers of ten that are exact doubles, for numbers parsed without going through a String.
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    protected TokenBuffer tokens;
+    protected SymbolTable symbols = new SymbolTable();
+    protected int line = 1;
+    private boolean ended = false;
+    private CharSequence lexemeView = new LexemeView();
+
+    protected abstract boolean isAtEnd();
+
+    protected abstract char advance();
+
+    protected abstract char peek();
+
+    protected abstract char peekNext();
+
+    /** Marks the current position as the beginning of the next lexeme. */
+    protected abstract void startLexeme();
+
+    /** Offset of the current lexeme from the beginning of the source. */
+    protected abstract int lexemeStart();
+
+    protected abstract int lexemeLength();
+
+    /** Character {@code index} of the current lexeme. */
+    protected abstract char lexemeChar(int index);
+
+    /** Text of the current lexeme without its first {@code trimStart} and last {@code trimEnd} characters. */
+    protected abstract String lexeme(int trimStart, int trimEnd);
+
+    @Override
+    public List<Token> scanTokens() {
+        while (!isAtEnd()) {
+            // We are at the beginning of the next lexeme.
+            startLexeme();
+            scanToken();
+        }
+
+        addEndOfFile();
+        return tokens;
+    }
+
+    @Override
+    public TokenStream tokenStream() {
+        return new ScanningTokenStream();
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    // Scans until at least one more token has been added, or the EOF token once the source runs out.
+    private void scanMore() {
+        int count = tokens.size();
+        while (!isAtEnd()) {
+            startLexeme();
+            scanToken();
+            if (tokens.size() > count) return;
+        }
+
+        addEndOfFile();
+    }
+
+    private void addEndOfFile() {
+        startLexeme();
+        addToken(EOF);
+        ended = true;
+    }
+
+    private void scanToken() {
+        char c = advance();
+        switch (c) {
+            case ':': addToken(COLON); break;
+            case '(': addToken(LEFT_PAREN); break;
+            case ')': addToken(RIGHT_PAREN); break;
+            case '{': addToken(LEFT_BRACE); break;
+            case '}': addToken(RIGHT_BRACE); break;
+            case ',': addToken(COMMA); break;
+            case '.': addToken(DOT); break;
+            case '-': addToken(MINUS); break;
+            case '+': addToken(PLUS); break;
+            case ';': addToken(SEMICOLON); break;
+            case '*': addToken(STAR); break;
+            case '=': addToken(EQUAL); break;
+            case '<': addToken(match('=') ? LESS_EQUAL : LESS); break;
+            case '>': addToken(match('=') ? GREATER_EQUAL : GREATER); break;
+            case '/':
+                if (match('/')) {
+                    // A comment goes until the end of the line.
+                    while (peek() != '\n' && !isAtEnd()) advance();
+                } else {
+                    addToken(SLASH);
+                }
+                break;
+
+            case ' ':
+            case '\r':
+            case '\t':
+                // Ignore whitespace.
+                break;
+
+            case '\n':
+                line++;
+                break;
+
+            case '"': string(); break;
+
+            default:
+                if (isDigit(c)) {
+                    number(c);
+                } else if (isAlpha(c)) {
+                    identifier(c);
+                }
+                else {
+                    throw new LexerException("Unexpected character.", line);
+                }
+                break;
+        }
+    }
+
+    private void identifier(char first) {
+        // Same hash as String.hashCode(), so names can be interned without cutting them out first.
+        int hash = first;
+        while (isAlphaNumeric(peek())) hash = 31 * hash + advance();
+
+        TokenType type = keyword();
+        if (type == IDENTIFIER) {
+            tokens.addIdentifier(lexemeStart(), lexemeLength(), line, symbols.intern(lexemeView, hash));
+        } else {
+            addToken(type);
+        }
+    }
+
+    // Decides on length and first character, then compares the rest of the lexeme in place.
+    private TokenType keyword() {
+        switch (lexemeLength()) {
+            case 2:
+                switch (lexemeChar(0)) {
+                    case 'i': return keyword("if", IF);
+                    case 'o': return keyword("or", OR);
+                }
+                break;
+            case 3:
+                switch (lexemeChar(0)) {
+                    case 'a': return keyword("and", AND);
+                    case 'f': return keyword("for", FOR);
+                    case 'l': return keyword("let", LET);
+                }
+                break;
+            case 4:
+                switch (lexemeChar(0)) {
+                    case 'e': return keyword("else", ELSE);
+                    case 't': return keyword("true", TRUE);
+                }
+                break;
+            case 5:
+                switch (lexemeChar(0)) {
+                    case 'c': return keyword("const", CONST);
+                    case 'f': return keyword("false", FALSE);
+                    case 'p': return keyword("print", PRINT);
+                    case 'w': return keyword("while", WHILE);
+                }
+                break;
+            case 6:
+                switch (lexemeChar(0)) {
+                    case 'n': return keyword("number", NUMBER_TYPE);
+                    case 's': return keyword("string", STRING_TYPE);
+                }
+                break;
+            case 7:
+                if (lexemeChar(0) == 'b') return keyword("boolean", BOOLEAN);
+                break;
+        }
+        return IDENTIFIER;
+    }
+
+    private TokenType keyword(String text, TokenType type) {
+        for (int i = 1; i < text.length(); i++) {
+            if (lexemeChar(i) != text.charAt(i)) return IDENTIFIER;
+        }
+        return type;
+    }
+
+    private boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') ||
+                (c >= 'A' && c <= 'Z') ||
+                c == '_';
+    }
+
+    private boolean isAlphaNumeric(char c) {
+        return isAlpha(c) || isDigit(c);
+    }
+
+    private boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private void number(char first) {
+        long digits = first - '0';
+        int count = 1;
+        int fractionDigits = 0;
+        while (isDigit(peek())) {
+            digits = digits * 10 + (advance() - '0');
+            count++;
+        }
+
+        // Look for a fractional part.
+        if (peek() == '.' && isDigit(peekNext())) {
+            // Consume the "."
+            advance();
+
+            while (isDigit(peek())) {
+                digits = digits * 10 + (advance() - '0');
+                count++;
+                fractionDigits++;
+            }
+        }
+
+        // A single division of two exact doubles is correctly rounded, just like Double.parseDouble.
+        double value = count <= MAX_EXACT_DIGITS
+                ? digits / POWERS_OF_TEN[fractionDigits]
+                : Double.parseDouble(lexeme(0, 0));
+        tokens.addNumber(lexemeStart(), lexemeLength(), line, value);
+    }
+
+    private void string() {
+        while (peek() != '"' && !isAtEnd()) {
+            if (peek() == '\n') line++;
+            advance();
+        }
+
+        // Unterminated string.
+        if (isAtEnd()) {
+            throw new LexerException("Unterminated string.", line);
+        }
+
+        // The closing ".
+        advance();
+
+        if (tokens.hasSource()) {
+            addToken(STRING);
+        } else {
+            // Trim the surrounding quotes.
+            tokens.addString(lexemeStart(), lexemeLength(), line, lexeme(1, 1));
+        }
+    }
+
+    private boolean match(char expected) {
+        if (isAtEnd()) return false;
+        if (peek() != expected) return false;
+
+        advance();
+        return true;
+    }
+
+    private void addToken(TokenType type) {
+        tokens.add(type, lexemeStart(), lexemeLength(), line);
+    }
+
+    // Reads from the same buffer scanTokens() fills, dropping tokens once they have been consumed.
+    private class ScanningTokenStream implements TokenStream {
+
+        private int current = 0;
+        private Token head;
+
+        @Override
+        public Token next() {
+            Token token = peek(0);
+            head = null;
+            if (token.getType() != EOF) current++;
+
+            if (current >= COMPACT_THRESHOLD) {
+                tokens.discard(current);
+                current = 0;
+            }
+            return token;
+        }
+
+        @Override
+        public Token peek(int k) {
+            // The next token is asked for over and over while parsing, so it is only built once.
+            if (k == 0 && head != null) return head;
+
+            while (current + k >= tokens.size() && !ended) {
+                scanMore();
+            }
+            Token token = tokens.get(Math.min(current + k, tokens.size() - 1));
+            if (k == 0) head = token;
+            return token;
+        }
+    }
+
+    // The current lexeme, read in place, for interning names.
+    private class LexemeView implements CharSequence {
+
+        @Override
+        public int length() {
+            return lexemeLength();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return lexemeChar(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return lexeme(0, 0);
+        }
+    }
+
+}
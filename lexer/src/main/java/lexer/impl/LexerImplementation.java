@@ -1,219 +1,78 @@
 package lexer.impl;
 
-import exception.LexerException;
-import lexer.Lexer;
-import token.Token;
-import token.TokenBuilder;
-import token.TokenType;
+import token.SymbolTable;
+import token.TokenBuffer;
 
 import java.io.BufferedReader;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
-import static token.TokenType.*;
-
-public class LexerImplementation implements Lexer {
+public class LexerImplementation extends AbstractLexer {
 
     private String source;
-    private List<Token> tokens = new ArrayList<>();
     private int start = 0;
     private int current = 0;
-    private int line = 1;
-
-    private static final Map<String, TokenType> keywords;
-
-    static {
-        keywords = new HashMap<>();
-        keywords.put("and",    AND);
-        keywords.put("else",   ELSE);
-        keywords.put("false",  FALSE);
-        keywords.put("for",    FOR);
-        keywords.put("if",     IF);
-        keywords.put("or",     OR);
-        keywords.put("print",  PRINT);
-        keywords.put("true",   TRUE);
-        keywords.put("let",    LET);
-        keywords.put("const",  CONST);
-        keywords.put("while",  WHILE);
-        keywords.put("string", STRING_TYPE);
-        keywords.put("number", NUMBER_TYPE);
-        keywords.put("boolean", BOOLEAN);
-    }
 
     public LexerImplementation(InputStreamReader source) {
-        this.source = new BufferedReader(source).lines().collect(Collectors.joining("\n"));
+        this(new BufferedReader(source).lines().collect(Collectors.joining("\n")));
     }
 
-    @Override
-    public List<Token> scanTokens() throws LexerException {
-        while (!isAtEnd()) {
-            // We are at the beginning of the next lexeme.
-            start = current;
-            scanToken();
-        }
-
-//        tokens.add(new TokenImpl(EOF, "", null, line));
-        tokens.add(TokenBuilder.createBuilder()
-                .addLiteral(null)
-                .addType(EOF)
-                .addLexeme("")
-                .addLine(line)
-                .buildToken());
-        return tokens;
+    public LexerImplementation(String source) {
+        this(source, new SymbolTable());
     }
 
-    private boolean isAtEnd() {
-        return current >= source.length();
+    public LexerImplementation(String source, SymbolTable symbols) {
+        this.source = source;
+        this.tokens = new TokenBuffer(source);
+        this.symbols = symbols;
     }
 
-    private void scanToken() throws LexerException {
-        char c = advance();
-        switch (c) {
-            case ':': addToken(COLON); break;
-            case '(': addToken(LEFT_PAREN); break;
-            case ')': addToken(RIGHT_PAREN); break;
-            case '{': addToken(LEFT_BRACE); break;
-            case '}': addToken(RIGHT_BRACE); break;
-            case ',': addToken(COMMA); break;
-            case '.': addToken(DOT); break;
-            case '-': addToken(MINUS); break;
-            case '+': addToken(PLUS); break;
-            case ';': addToken(SEMICOLON); break;
-            case '*': addToken(STAR); break;
-            case '=': addToken(EQUAL); break;
-            case '<': addToken(match('=') ? LESS_EQUAL : LESS); break;
-            case '>': addToken(match('=') ? GREATER_EQUAL : GREATER); break;
-            case '/':
-                if (match('/')) {
-                    // A comment goes until the end of the line.
-                    while (peek() != '\n' && !isAtEnd()) advance();
-                } else {
-                    addToken(SLASH);
-                }
-                break;
-
-            case ' ':
-            case '\r':
-            case '\t':
-                // Ignore whitespace.
-                break;
-
-            case '\n':
-                line++;
-                break;
-
-            case '"': string(); break;
-
-            default:
-                if (isDigit(c)) {
-                    number();
-                } else if (isAlpha(c)) {
-                    identifier();
-                }
-                else {
-                    throw new LexerException("Unexpected character.", line);
-                }
-                break;
-        }
+    @Override
+    protected boolean isAtEnd() {
+        return current >= source.length();
     }
 
-    private void identifier() {
-        while (isAlphaNumeric(peek())) advance();
-        String text = source.substring(start, current);
-
-        TokenType type = keywords.get(text);
-        if (type == null) type = IDENTIFIER;
-        addToken(type);
+    @Override
+    protected void startLexeme() {
+        start = current;
     }
 
-    private boolean isAlpha(char c) {
-        return (c >= 'a' && c <= 'z') ||
-                (c >= 'A' && c <= 'Z') ||
-                c == '_';
+    @Override
+    protected int lexemeStart() {
+        return start;
     }
 
-    private boolean isAlphaNumeric(char c) {
-        return isAlpha(c) || isDigit(c);
+    @Override
+    protected int lexemeLength() {
+        return current - start;
     }
 
-    private boolean isDigit(char c) {
-        return c >= '0' && c <= '9';
+    @Override
+    protected char lexemeChar(int index) {
+        return source.charAt(start + index);
     }
 
-    private void number() {
-        while (isDigit(peek())) advance();
-
-        // Look for a fractional part.
-        if (peek() == '.' && isDigit(peekNext())) {
-            // Consume the "."
-            advance();
-
-            while (isDigit(peek())) advance();
-        }
-
-        addToken(NUMBER,
-                Double.parseDouble(source.substring(start, current)));
+    @Override
+    protected String lexeme(int trimStart, int trimEnd) {
+        return source.substring(start + trimStart, current - trimEnd);
     }
 
-    private char peekNext() {
+    @Override
+    protected char peekNext() {
         if (current + 1 >= source.length()) return '\0';
         return source.charAt(current + 1);
     }
 
-    private void string() throws LexerException {
-        while (peek() != '"' && !isAtEnd()) {
-            if (peek() == '\n') line++;
-            advance();
-        }
-
-        // Unterminated string.
-        if (isAtEnd()) {
-            throw new LexerException("Unterminated string.", line);
-        }
-
-        // The closing ".
-        advance();
-
-        // Trim the surrounding quotes.
-        String value = source.substring(start + 1, current - 1);
-        addToken(STRING, value);
-    }
-
-    private boolean match(char expected) {
-        if (isAtEnd()) return false;
-        if (source.charAt(current) != expected) return false;
-
-        current++;
-        return true;
-    }
-
-    private char peek() {
+    @Override
+    protected char peek() {
         if (isAtEnd()) return '\0';
         return source.charAt(current);
     }
 
-    private char advance() {
+    @Override
+    protected char advance() {
         current++;
         return source.charAt(current - 1);
     }
 
-    private void addToken(TokenType type) {
-        addToken(type, null);
-    }
-
-    private void addToken(TokenType type, Object literal) {
-        String text = source.substring(start, current);
-        tokens.add(TokenBuilder.createBuilder()
-                .addLiteral(literal)
-                .addType(type)
-                .addLexeme(text)
-                .addLine(line)
-                .buildToken());
-    }
-
 }
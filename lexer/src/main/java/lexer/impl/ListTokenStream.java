@@ -0,0 +1,37 @@
+package lexer.impl;
+
+import lexer.TokenStream;
+import token.Token;
+
+import java.util.List;
+
+public class ListTokenStream implements TokenStream {
+
+    private List<Token> tokens;
+    private int current = 0;
+    private Token head;
+
+    /** The list must end with an EOF token, as the one returned by {@link lexer.Lexer#scanTokens()}. */
+    public ListTokenStream(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek(0);
+        head = null;
+        if (current < tokens.size() - 1) current++;
+        return token;
+    }
+
+    @Override
+    public Token peek(int k) {
+        // The next token is asked for over and over while parsing, and a TokenBuffer builds it on every get.
+        if (k == 0 && head != null) return head;
+
+        Token token = tokens.get(Math.min(current + k, tokens.size() - 1));
+        if (k == 0) head = token;
+        return token;
+    }
+
+}
@@ -0,0 +1,131 @@
+package lexer.impl;
+
+import token.SymbolTable;
+import token.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scans a UTF-8 source byte by byte, straight out of a memory-mapped file, without decoding it. Everything
+ * outside string literals and comments is ASCII, so a byte is a character there; string literals are decoded
+ * when they are cut out. Line breaks read the same as in {@link StreamingLexerImplementation}: {@code "\r\n"}
+ * and a lone {@code '\r'} are a single {@code '\n'}, and the last line terminator is dropped.
+ */
+public class MappedLexerImplementation extends AbstractLexer {
+
+    private final ByteBuffer source;
+    private final int limit;
+    private int start = 0;
+    private int current = 0;
+
+    public MappedLexerImplementation(Path path) throws IOException {
+        this(map(path));
+    }
+
+    /** Scans the bytes from the position of the buffer to its limit. */
+    public MappedLexerImplementation(ByteBuffer source) {
+        this(source, new SymbolTable(), 1);
+    }
+
+    /** Scans bytes that start on the given line, interning identifiers into the given table. */
+    public MappedLexerImplementation(ByteBuffer source, SymbolTable symbols, int line) {
+        this.source = source.slice();
+        this.limit = this.source.limit() - finalLineBreak(this.source);
+        this.tokens = new TokenBuffer();
+        this.symbols = symbols;
+        this.line = line;
+    }
+
+    // What scanning has produced so far, with offsets from the start of the bytes.
+    TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    // The channel can be closed as soon as the file is mapped, the mapping stays valid.
+    static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static int finalLineBreak(ByteBuffer source) {
+        int end = source.limit();
+        if (end >= 2 && source.get(end - 2) == '\r' && source.get(end - 1) == '\n') return 2;
+        if (end >= 1 && (source.get(end - 1) == '\n' || source.get(end - 1) == '\r')) return 1;
+        return 0;
+    }
+
+    @Override
+    protected boolean isAtEnd() {
+        return current >= limit;
+    }
+
+    @Override
+    protected void startLexeme() {
+        start = current;
+    }
+
+    @Override
+    protected int lexemeStart() {
+        return start;
+    }
+
+    @Override
+    protected int lexemeLength() {
+        return current - start;
+    }
+
+    @Override
+    protected char lexemeChar(int index) {
+        return (char) (source.get(start + index) & 0xFF);
+    }
+
+    @Override
+    protected String lexeme(int trimStart, int trimEnd) {
+        int from = start + trimStart;
+        byte[] bytes = new byte[current - trimEnd - from];
+        // A duplicate keeps the position of the source untouched.
+        ByteBuffer view = source.duplicate();
+        view.position(from);
+        view.get(bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return text.indexOf('\r') < 0 ? text : text.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    @Override
+    protected char peekNext() {
+        int next = current + width(current);
+        if (next >= limit) return '\0';
+        return charAt(next);
+    }
+
+    @Override
+    protected char peek() {
+        if (isAtEnd()) return '\0';
+        return charAt(current);
+    }
+
+    @Override
+    protected char advance() {
+        byte b = source.get(current++);
+        if (b != '\r') return (char) (b & 0xFF);
+        if (current < limit && source.get(current) == '\n') current++;
+        return '\n';
+    }
+
+    private char charAt(int index) {
+        byte b = source.get(index);
+        return b == '\r' ? '\n' : (char) (b & 0xFF);
+    }
+
+    // How many bytes the character at the index takes, two for a "\r\n".
+    private int width(int index) {
+        return source.get(index) == '\r' && index + 1 < limit && source.get(index + 1) == '\n' ? 2 : 1;
+    }
+
+}
@@ -0,0 +1,216 @@
+package lexer.impl;
+
+import exception.LexerException;
+import lexer.Lexer;
+import lexer.TokenStream;
+import token.Symbol;
+import token.SymbolTable;
+import token.Token;
+import token.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Scans a large UTF-8 source on several threads, reading it the same way {@link MappedLexerImplementation}
+ * does and producing exactly the same tokens, symbols and errors.
+ *
+ * The source is cut into chunks at line starts. A line start is a token boundary unless it falls inside a
+ * string literal, since comments end with their line, so a first pass over each chunk only tracks whether
+ * it is inside a string and counts its line breaks. Chained together in order, those tell where each chunk
+ * really starts and on which line. A chunk that starts inside a string is joined to the one before it, and
+ * the resulting regions are scanned in parallel. Their tokens are then appended in order, moving their
+ * identifiers over to one symbol table, and the first region that failed fails the whole scan, as it would
+ * have sequentially.
+ */
+public class ParallelLexerImplementation implements Lexer {
+
+    // Smaller chunks are not worth a task.
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    // More chunks than threads, so that threads finishing early pick up more work.
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ByteBuffer source;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final SymbolTable symbols = new SymbolTable();
+    private TokenBuffer tokens;
+
+    public ParallelLexerImplementation(Path path) throws IOException {
+        this(MappedLexerImplementation.map(path));
+    }
+
+    /** Scans the bytes from the position of the buffer to its limit. */
+    public ParallelLexerImplementation(ByteBuffer source) {
+        this(source, ForkJoinPool.commonPool());
+    }
+
+    public ParallelLexerImplementation(ByteBuffer source, ForkJoinPool pool) {
+        this(source, pool, MIN_CHUNK_SIZE);
+    }
+
+    public ParallelLexerImplementation(ByteBuffer source, ForkJoinPool pool, int minChunkSize) {
+        this.source = source.slice();
+        this.pool = pool;
+        int chunks = Math.max(1, Math.min(this.source.limit() / minChunkSize, pool.getParallelism() * CHUNKS_PER_THREAD));
+        this.chunkSize = Math.max(minChunkSize, this.source.limit() / chunks);
+    }
+
+    @Override
+    public List<Token> scanTokens() {
+        if (tokens == null) tokens = scan();
+        return tokens;
+    }
+
+    @Override
+    public TokenStream tokenStream() {
+        return new ListTokenStream(scanTokens());
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    private TokenBuffer scan() {
+        int[] bounds = split();
+        int chunks = bounds.length - 1;
+
+        List<ForkJoinTask<Summary>> summaries = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            summaries.add(pool.submit(() -> summarize(from, to, false)));
+        }
+
+        List<Region> regions = new ArrayList<>();
+        Region region = null;
+        boolean inString = false;
+        int line = 1;
+        for (int i = 0; i < chunks; i++) {
+            if (!inString) {
+                region = new Region(bounds[i], line);
+                regions.add(region);
+            }
+            Summary summary = summaries.get(i).join();
+            // A string running on into the next chunk is rare, so only then is that chunk followed from inside one.
+            inString = inString ? summarize(bounds[i], bounds[i + 1], true).endsInString : summary.endsInString;
+            line += summary.lineBreaks;
+            region.end = bounds[i + 1];
+        }
+
+        List<ForkJoinTask<Region>> scanned = new ArrayList<>();
+        for (Region each : regions) {
+            scanned.add(pool.submit(each::scan));
+        }
+
+        int total = 0;
+        for (ForkJoinTask<Region> each : scanned) {
+            Region done = each.join();
+            if (done.failure != null) throw done.failure;
+            total += done.tokens.size();
+        }
+
+        TokenBuffer merged = new TokenBuffer();
+        merged.ensureCapacity(total);
+        for (int i = 0; i < scanned.size(); i++) {
+            Region each = scanned.get(i).join();
+            // Every region ends with an EOF token, only the last one is kept.
+            int count = i == scanned.size() - 1 ? each.tokens.size() : each.tokens.size() - 1;
+            merged.addAll(each.tokens, count, each.start, intern(each.symbols));
+        }
+        return merged;
+    }
+
+    // Chunk bounds, each chunk but the first starting right after a '\n'.
+    private int[] split() {
+        int length = source.limit();
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int next = chunkSize;
+        while (next < length) {
+            while (next < length && source.get(next - 1) != '\n') next++;
+            if (next < length) bounds.add(next);
+            next += chunkSize;
+        }
+        bounds.add(length);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Follows string literals and comments through the chunk the way the scanner does, starting inside a string
+     * or not, and counts the line breaks on the way.
+     */
+    private Summary summarize(int from, int to, boolean inString) {
+        int lineBreaks = 0;
+        int i = from;
+        while (i < to) {
+            byte b = source.get(i++);
+            if (b == '\n' || b == '\r' && (i == to || source.get(i) != '\n')) {
+                lineBreaks++;
+            } else if (b == '"') {
+                inString = !inString;
+            } else if (b == '/' && !inString && i < to && source.get(i) == '/') {
+                // The line break ending the comment is counted on the next turn.
+                while (i < to && source.get(i) != '\n' && source.get(i) != '\r') i++;
+            }
+        }
+        return new Summary(inString, lineBreaks);
+    }
+
+    // Moves the symbols of a region over to the shared table, in the order they were first seen.
+    private Symbol[] intern(SymbolTable regionSymbols) {
+        Symbol[] moved = new Symbol[regionSymbols.size()];
+        for (int id = 0; id < moved.length; id++) {
+            Symbol symbol = regionSymbols.get(id);
+            moved[id] = symbols.intern(symbol.getName(), symbol.hashCode());
+        }
+        return moved;
+    }
+
+    private static class Summary {
+
+        private final boolean endsInString;
+        private final int lineBreaks;
+
+        Summary(boolean endsInString, int lineBreaks) {
+            this.endsInString = endsInString;
+            this.lineBreaks = lineBreaks;
+        }
+    }
+
+    // Consecutive chunks that are scanned as one, because strings run across their bounds.
+    private class Region {
+
+        private final int start;
+        private final int line;
+        private int end;
+        private final SymbolTable symbols = new SymbolTable();
+        private TokenBuffer tokens;
+        private LexerException failure;
+
+        Region(int start, int line) {
+            this.start = start;
+            this.line = line;
+        }
+
+        Region scan() {
+            ByteBuffer region = source.duplicate();
+            region.position(start);
+            region.limit(end);
+            MappedLexerImplementation lexer = new MappedLexerImplementation(region, symbols, line);
+            try {
+                lexer.scanTokens();
+                tokens = lexer.getTokens();
+            } catch (LexerException e) {
+                failure = e;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package lexer.impl;
+
+import token.SymbolTable;
+import token.TokenBuffer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Scans straight out of a fixed-size buffer that is refilled from the reader, so the source is never
+ * held in memory as a whole. Line breaks are normalized while filling the same way
+ * {@link java.io.BufferedReader#lines()} joined with {@code "\n"} does: {@code "\r\n"} and a lone
+ * {@code '\r'} become {@code '\n'}, and the last line terminator of the input is dropped.
+ */
+public class StreamingLexerImplementation extends AbstractLexer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private Reader reader;
+    private char[] buffer;
+    // Offset in the source of the first character in the buffer.
+    private int offset = 0;
+    private int start = 0;
+    private int current = 0;
+    private int limit = 0;
+    private boolean exhausted = false;
+    private boolean skipLineFeed = false;
+
+    public StreamingLexerImplementation(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingLexerImplementation(Reader reader, SymbolTable symbols) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+        this.symbols = symbols;
+    }
+
+    public StreamingLexerImplementation(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[Math.max(bufferSize, 2)];
+        this.tokens = new TokenBuffer();
+    }
+
+    @Override
+    protected boolean isAtEnd() {
+        ensure(2);
+        return current >= limit;
+    }
+
+    @Override
+    protected void startLexeme() {
+        start = current;
+    }
+
+    @Override
+    protected int lexemeStart() {
+        return offset + start;
+    }
+
+    @Override
+    protected int lexemeLength() {
+        return current - start;
+    }
+
+    @Override
+    protected char lexemeChar(int index) {
+        return buffer[start + index];
+    }
+
+    @Override
+    protected String lexeme(int trimStart, int trimEnd) {
+        return new String(buffer, start + trimStart, current - start - trimStart - trimEnd);
+    }
+
+    @Override
+    protected char peekNext() {
+        ensure(2);
+        if (current + 1 >= limit) return '\0';
+        return buffer[current + 1];
+    }
+
+    @Override
+    protected char peek() {
+        if (isAtEnd()) return '\0';
+        return buffer[current];
+    }
+
+    @Override
+    protected char advance() {
+        ensure(2);
+        return buffer[current++];
+    }
+
+    // Two characters of lookahead are kept so the final line terminator is always seen before it is consumed.
+    private void ensure(int count) {
+        while (limit - current < count && !exhausted) {
+            fill();
+        }
+    }
+
+    private void fill() {
+        if (start > 0) {
+            // Only the lexeme in progress has to survive a refill.
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            offset += start;
+            current -= start;
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buffer.length) {
+            char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+
+        int read;
+        try {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (read == -1) {
+            exhausted = true;
+            if (limit > current && buffer[limit - 1] == '\n') limit--;
+            return;
+        }
+        limit = normalizeLineBreaks(limit, limit + read);
+    }
+
+    private int normalizeLineBreaks(int from, int to) {
+        int write = from;
+        for (int i = from; i < to; i++) {
+            char c = buffer[i];
+            if (c == '\n' && skipLineFeed) {
+                skipLineFeed = false;
+                continue;
+            }
+            skipLineFeed = c == '\r';
+            buffer[write++] = skipLineFeed ? '\n' : c;
+        }
+        return write;
+    }
+
+}
@@ -0,0 +1,37 @@
+package token;
+
+/**
+ * An identifier name, created once per distinct name by a {@link SymbolTable}. Symbols from the same table
+ * are equal only when they are the same instance, and their hash is computed once up front.
+ */
+public final class Symbol {
+
+    private final String name;
+    private final int hash;
+    private final int id;
+
+    Symbol(String name, int hash, int id) {
+        this.name = name;
+        this.hash = hash;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Position of the symbol in its table, from 0 up to the table size. */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
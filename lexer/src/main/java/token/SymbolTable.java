@@ -0,0 +1,68 @@
+package token;
+
+import java.util.Arrays;
+
+/**
+ * Interns identifier names into {@link Symbol}s, one per distinct name. Lookups take the name as a
+ * {@link CharSequence} plus its {@link String#hashCode()}, so a lexer can probe with a view over its
+ * buffer and only allocate the first time a name shows up.
+ */
+public class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Symbol[] slots = new Symbol[INITIAL_CAPACITY];
+    private Symbol[] symbols = new Symbol[INITIAL_CAPACITY / 2];
+    private int size = 0;
+
+    public Symbol intern(String name) {
+        return intern(name, name.hashCode());
+    }
+
+    public Symbol intern(CharSequence name, int hash) {
+        int mask = slots.length - 1;
+        int index = spread(hash) & mask;
+        while (slots[index] != null) {
+            Symbol symbol = slots[index];
+            if (symbol.hashCode() == hash && sameName(symbol.getName(), name)) return symbol;
+            index = (index + 1) & mask;
+        }
+
+        Symbol symbol = new Symbol(name.toString(), hash, size);
+        slots[index] = symbol;
+        if (size == symbols.length) symbols = Arrays.copyOf(symbols, size * 2);
+        symbols[size++] = symbol;
+        if (size * 2 > slots.length) grow();
+        return symbol;
+    }
+
+    public Symbol get(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean sameName(String interned, CharSequence name) {
+        if (interned.length() != name.length()) return false;
+        for (int i = 0; i < interned.length(); i++) {
+            if (interned.charAt(i) != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        slots = new Symbol[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int index = spread(symbols[i].hashCode()) & mask;
+            while (slots[index] != null) index = (index + 1) & mask;
+            slots[index] = symbols[i];
+        }
+    }
+}
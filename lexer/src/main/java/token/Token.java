@@ -5,6 +5,12 @@ public interface Token {
     String toString();
     TokenType getType();
     Object getLiteral();
+    /**
+     * The text of the token. Lexers that do not keep the source around, the streaming and the mapped ones,
+     * write a number back from its value instead: {@code 1.50} comes out as {@code 1.5} and {@code 2.0} as
+     * {@code 2}. The value itself is always {@link #getLiteral()}.
+     */
     String getLexeme();
     int getLine();
+    Symbol getSymbol();
 }
@@ -0,0 +1,193 @@
+package token;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+import static token.TokenType.*;
+
+/**
+ * Compact token storage: every token is a row across parallel primitive arrays. {@link Token} objects are
+ * only created when {@link #get(int)} is called, and their lexeme only when it is asked for.
+ *
+ * Identifiers carry their interned {@link Symbol}. When the buffer is backed by the source text, string
+ * literals and lexemes are cut out of it on demand; otherwise the lexer hands over string values as it
+ * scans them.
+ */
+public class TokenBuffer extends AbstractList<Token> {
+
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final int INITIAL_CAPACITY = 256;
+
+    private CharSequence source;
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private long[] literals = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public TokenBuffer() {
+        this(null);
+    }
+
+    public TokenBuffer(CharSequence source) {
+        this.source = source;
+    }
+
+    public boolean hasSource() {
+        return source != null;
+    }
+
+    public void add(TokenType type, int start, int length, int line) {
+        add(type, start, length, line, null);
+    }
+
+    public void addNumber(int start, int length, int line, double value) {
+        add(NUMBER, start, length, line, null);
+        literals[size - 1] = Double.doubleToRawLongBits(value);
+    }
+
+    public void addIdentifier(int start, int length, int line, Symbol symbol) {
+        add(IDENTIFIER, start, length, line, symbol);
+    }
+
+    /** Adds a string literal whose value is already known. */
+    public void addString(int start, int length, int line, String value) {
+        add(STRING, start, length, line, value);
+    }
+
+    private void add(TokenType type, int start, int length, int line, Object value) {
+        if (size == types.length) grow(size + 1);
+        types[size] = type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        lines[size] = line;
+        values[size] = value;
+        size++;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > types.length) grow(capacity);
+    }
+
+    /**
+     * Appends the first {@code count} tokens of another buffer, moving their offsets by {@code shift}. The
+     * symbols of its identifiers are replaced by {@code symbols[id]}, for moving them over to another table.
+     */
+    public void addAll(TokenBuffer other, int count, int shift, Symbol[] symbols) {
+        if (size + count > types.length) grow(size + count);
+        System.arraycopy(other.types, 0, types, size, count);
+        System.arraycopy(other.lengths, 0, lengths, size, count);
+        System.arraycopy(other.lines, 0, lines, size, count);
+        System.arraycopy(other.literals, 0, literals, size, count);
+        System.arraycopy(other.values, 0, values, size, count);
+        int identifier = IDENTIFIER.ordinal();
+        for (int i = 0; i < count; i++) {
+            starts[size + i] = other.starts[i] + shift;
+            if (types[size + i] == identifier) values[size + i] = symbols[((Symbol) values[size + i]).getId()];
+        }
+        size += count;
+    }
+
+    /** Drops the first {@code count} tokens, shifting the rest to the front. */
+    public void discard(int count) {
+        int remaining = size - count;
+        System.arraycopy(types, count, types, 0, remaining);
+        System.arraycopy(starts, count, starts, 0, remaining);
+        System.arraycopy(lengths, count, lengths, 0, remaining);
+        System.arraycopy(lines, count, lines, 0, remaining);
+        System.arraycopy(literals, count, literals, 0, remaining);
+        System.arraycopy(values, count, values, 0, remaining);
+        Arrays.fill(values, remaining, size, null);
+        size = remaining;
+    }
+
+    @Override
+    public Token get(int index) {
+        checkIndex(index);
+        TokenType type = getType(index);
+        Symbol symbol = getSymbol(index);
+        String lexeme = symbol != null ? symbol.getName() : type.getLexeme();
+        if (lexeme == null) lexeme = literalLexeme(index);
+        return new TokenImpl(type, lexeme, getLiteral(index), lines[index], symbol);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public TokenType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public int getStart(int index) {
+        return starts[index];
+    }
+
+    public int getLength(int index) {
+        return lengths[index];
+    }
+
+    public int getLine(int index) {
+        return lines[index];
+    }
+
+    public double getNumber(int index) {
+        return Double.longBitsToDouble(literals[index]);
+    }
+
+    public Symbol getSymbol(int index) {
+        return getType(index) == IDENTIFIER ? (Symbol) values[index] : null;
+    }
+
+    public String getString(int index) {
+        if (values[index] == null && source != null) {
+            // Trim the surrounding quotes.
+            return source.subSequence(starts[index] + 1, starts[index] + lengths[index] - 1).toString();
+        }
+        return (String) values[index];
+    }
+
+    public Object getLiteral(int index) {
+        switch (getType(index)) {
+            case NUMBER: return getNumber(index);
+            case STRING: return getString(index);
+            default: return null;
+        }
+    }
+
+    public String getLexeme(int index) {
+        if (source != null) {
+            return source.subSequence(starts[index], starts[index] + lengths[index]).toString();
+        }
+        return get(index).getLexeme();
+    }
+
+    // The text of a number or string literal. Without the source it is rebuilt from the value, a number being
+    // written without a fraction when it has none, as in most programs. See Token.getLexeme.
+    private String literalLexeme(int index) {
+        if (source != null) return getLexeme(index);
+        if (getType(index) == STRING) return '"' + getString(index) + '"';
+        double number = getNumber(index);
+        long integral = (long) number;
+        return integral == number && integral != Long.MAX_VALUE ? Long.toString(integral) : Double.toString(number);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void grow(int minimum) {
+        int capacity = Math.max(types.length * 2, minimum);
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        literals = Arrays.copyOf(literals, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
@@ -5,6 +5,7 @@ public class TokenBuilder {
     private Integer line;
     private String lexeme;
     private Object literal;
+    private Symbol symbol;
 
     public TokenBuilder addType(TokenType type) {
         this.type = type;
@@ -27,8 +28,13 @@ public class TokenBuilder {
         return this;
     }
 
+    public TokenBuilder addSymbol(Symbol symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+
     public Token buildToken(){
-        return new TokenImpl(type, lexeme, literal, line);
+        return new TokenImpl(type, lexeme, literal, line, symbol);
     }
 
     public static TokenBuilder createBuilder(){
@@ -1,24 +1,28 @@
 package token;
 
+import static token.TokenType.STRING;
+
 class TokenImpl implements Token{
 
     private TokenType type;
     private String lexeme;
     private Object literal;
     private int line;
+    private Symbol symbol;
 
-    TokenImpl(TokenType type, String lexeme, Object literal, int line) {
+    TokenImpl(TokenType type, String lexeme, Object literal, int line, Symbol symbol) {
         this.type = type;
         this.lexeme = lexeme;
         this.literal = literal;
         this.line = line;
+        this.symbol = symbol;
     }
 
     @Override
     public String toString() {
         return "TokenImpl{" +
                 "type=" + type +
-                ", lexeme='" + lexeme + '\'' +
+                ", lexeme='" + getLexeme() + '\'' +
                 ", literal=" + literal +
                 ", line=" + line +
                 '}';
@@ -29,6 +33,10 @@ class TokenImpl implements Token{
     }
 
     public String getLexeme() {
+        if (lexeme == null) {
+            // Tokens taken from a TokenBuffer only carry the literal.
+            lexeme = type == STRING ? "\"" + literal + "\"" : String.valueOf(literal);
+        }
         return lexeme;
     }
 
@@ -39,4 +47,8 @@ class TokenImpl implements Token{
     public int getLine() {
         return line;
     }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
 }
@@ -2,39 +2,54 @@ package token;
 
 public enum TokenType {
 
-    LET,
-    CONST,
-    IF,
-    ELSE,
+    LET("let"),
+    CONST("const"),
+    IF("if"),
+    ELSE("else"),
     NUMBER,
-    BOOLEAN,
+    BOOLEAN("boolean"),
     STRING,
-    LEFT_PAREN,
-    RIGHT_PAREN,
-    SEMICOLON,
-    COLON,
-    LEFT_BRACE,
-    RIGHT_BRACE,
-    EQUAL,
-    PRINT,
-    EOF,
-    COMMA,
-    DOT,
-    MINUS,
-    PLUS,
-    STAR,
-    LESS_EQUAL,
-    LESS,
-    GREATER_EQUAL,
-    GREATER,
-    SLASH,
+    LEFT_PAREN("("),
+    RIGHT_PAREN(")"),
+    SEMICOLON(";"),
+    COLON(":"),
+    LEFT_BRACE("{"),
+    RIGHT_BRACE("}"),
+    EQUAL("="),
+    PRINT("print"),
+    EOF(""),
+    COMMA(","),
+    DOT("."),
+    MINUS("-"),
+    PLUS("+"),
+    STAR("*"),
+    LESS_EQUAL("<="),
+    LESS("<"),
+    GREATER_EQUAL(">="),
+    GREATER(">"),
+    SLASH("/"),
     IDENTIFIER,
-    AND,
-    TRUE,
-    FALSE,
-    FOR,
-    OR,
-    WHILE,
-    NUMBER_TYPE,
-    STRING_TYPE
+    AND("and"),
+    TRUE("true"),
+    FALSE("false"),
+    FOR("for"),
+    OR("or"),
+    WHILE("while"),
+    NUMBER_TYPE("number"),
+    STRING_TYPE("string");
+
+    private final String lexeme;
+
+    TokenType() {
+        this(null);
+    }
+
+    TokenType(String lexeme) {
+        this.lexeme = lexeme;
+    }
+
+    /** The text every token of this type has, or null when it depends on the source. */
+    public String getLexeme() {
+        return lexeme;
+    }
 }
@@ -0,0 +1,85 @@
+package lexer.impl;
+
+import exception.LexerException;
+import token.Token;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Programs and comparisons shared by the tests of the lexers that must produce exactly the tokens the lexer
+ * over a reader does.
+ */
+final class LexerFixtures {
+
+    private LexerFixtures() {
+    }
+
+    // Long names, comments and strings over two lines, so buffers and chunks cut through all of them.
+    static String program(int repeats, String lineBreak) {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < repeats; i++) {
+            source.append("let aVeryLongIdentifierName").append(i).append(": number = 1234.5678 * ").append(i).append(';').append(lineBreak)
+                    .append("// a comment that goes on ; { \" until the end").append(lineBreak)
+                    .append("const s").append(i).append(": string = \"a string with ; and // inside").append(lineBreak)
+                    .append("that goes over two lines\";").append(lineBreak)
+                    .append("if (aVeryLongIdentifierName").append(i).append(" >= 10 and true or false) {").append(lineBreak)
+                    .append("    print s").append(i).append(" + \"\" + 0.5;").append(lineBreak)
+                    .append("} else {").append(lineBreak)
+                    .append("    while (x <= 3) { x = x + 1; }").append(lineBreak)
+                    .append('}').append(lineBreak);
+        }
+        return source.toString();
+    }
+
+    // A program with an unexpected character in the middle and an unterminated string after it.
+    static String failingProgram() {
+        return program(30, "\n") + "print @;\n" + program(30, "\n") + "print \"never closed;\n";
+    }
+
+    static List<String> describe(List<Token> tokens) {
+        List<String> described = new ArrayList<>();
+        for (Token token : tokens) {
+            described.add(token.getType() + " " + token.getLexeme() + " " + token.getLiteral() + " " + token.getLine());
+        }
+        return described;
+    }
+
+    // Points at the first token that differs, rather than printing both programs.
+    static void assertSameTokens(String message, List<String> expected, List<String> actual) {
+        for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+            assertEquals(message + ", token " + i, expected.get(i), actual.get(i));
+        }
+        assertEquals(message + ", token count", expected.size(), actual.size());
+    }
+
+    // Files were read by joining their lines, which drops the last line break and turns the others into '\n'.
+    static List<String> expected(String source) {
+        return describe(reference(source).scanTokens());
+    }
+
+    static LexerImplementation reference(String source) {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        return new LexerImplementation(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+    }
+
+    static ByteBuffer bytes(String source) {
+        return ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The message the scan failed with, or null if it did not. */
+    static String error(Runnable scan) {
+        try {
+            scan.run();
+            return null;
+        } catch (LexerException e) {
+            return e.getMessage();
+        }
+    }
+}
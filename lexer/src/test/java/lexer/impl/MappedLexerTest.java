@@ -0,0 +1,57 @@
+package lexer.impl;
+
+import org.junit.Test;
+import token.Token;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static lexer.impl.LexerFixtures.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class MappedLexerTest {
+
+    @Test
+    public void agreesWithEveryLineBreak() {
+        for (String lineBreak : new String[] { "\n", "\r\n", "\r" }) {
+            String source = program(20, lineBreak);
+            assertSameTokens("mapped", expected(source), describe(new MappedLexerImplementation(bytes(source)).scanTokens()));
+        }
+    }
+
+    @Test
+    public void scansFromThePositionToTheLimit() {
+        String source = program(3, "\n");
+        ByteBuffer padded = bytes("print 1;\n" + source + "print 2;\n");
+        padded.position("print 1;\n".length());
+        padded.limit(padded.limit() - "print 2;\n".length());
+        assertSameTokens("slice", expected(source), describe(new MappedLexerImplementation(padded).scanTokens()));
+    }
+
+    @Test
+    public void failsLikeTheReaderLexer() {
+        String source = failingProgram();
+        String expected = error(() -> reference(source).scanTokens());
+        assertNotNull(expected);
+        assertEquals(expected, error(() -> new MappedLexerImplementation(bytes(source)).scanTokens()));
+    }
+
+    // Number lexemes are written back from the value when the source is not kept, see Token.getLexeme.
+    @Test
+    public void literalsHaveLexemes() {
+        String source = "print 1.50 + 7 + \"text\";";
+        List<List<Token>> scanned = new ArrayList<>();
+        scanned.add(new MappedLexerImplementation(bytes(source)).scanTokens());
+        scanned.add(new StreamingLexerImplementation(new StringReader(source)).scanTokens());
+        for (List<Token> tokens : scanned) {
+            assertEquals("1.5", tokens.get(1).getLexeme());
+            assertEquals("7", tokens.get(3).getLexeme());
+            assertEquals("\"text\"", tokens.get(5).getLexeme());
+            assertEquals("text", tokens.get(5).getLiteral());
+        }
+        assertEquals("1.50", new LexerImplementation(source).scanTokens().get(1).getLexeme());
+    }
+}
@@ -0,0 +1,63 @@
+package lexer.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import token.Token;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static lexer.impl.LexerFixtures.*;
+import static org.junit.Assert.*;
+
+/** Small chunks put token boundaries, line breaks and strings across the places where the source is cut. */
+public class ParallelLexerTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void agreesAcrossChunks() {
+        for (String lineBreak : new String[] { "\n", "\r\n" }) {
+            String source = program(50, lineBreak);
+            List<String> expected = expected(source);
+            for (int chunkSize : new int[] { 1, 7, 64, 1000 }) {
+                List<Token> tokens = new ParallelLexerImplementation(bytes(source), pool, chunkSize).scanTokens();
+                assertSameTokens("chunks of " + chunkSize, expected, describe(tokens));
+            }
+        }
+    }
+
+    @Test
+    public void sharesSymbolsAcrossChunks() {
+        List<Token> tokens = new ParallelLexerImplementation(bytes(program(50, "\n")), pool, 7).scanTokens();
+        Token first = null;
+        for (Token token : tokens) {
+            if (token.getSymbol() == null || !token.getLexeme().equals("x")) continue;
+            if (first == null) first = token;
+            assertSame(first.getSymbol(), token.getSymbol());
+        }
+        assertNotNull(first);
+    }
+
+    @Test
+    public void failsWithTheFirstErrorOnItsLine() {
+        String source = failingProgram();
+        String expected = error(() -> reference(source).scanTokens());
+        assertNotNull(expected);
+        for (int chunkSize : new int[] { 1, 7, 64 }) {
+            assertEquals("chunks of " + chunkSize, expected,
+                    error(() -> new ParallelLexerImplementation(bytes(source), pool, chunkSize).scanTokens()));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package lexer.impl;
+
+import lexer.TokenStream;
+import org.junit.Test;
+import token.Token;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static lexer.impl.LexerFixtures.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static token.TokenType.EOF;
+
+/** Small buffers put token boundaries, line breaks and strings across the places where the buffer is refilled. */
+public class StreamingLexerTest {
+
+    @Test
+    public void agreesAtAnyBufferSize() {
+        for (String lineBreak : new String[] { "\n", "\r\n" }) {
+            String source = program(20, lineBreak);
+            List<String> expected = expected(source);
+            for (int bufferSize : new int[] { 2, 3, 5, 16, 61, 1 << 13 }) {
+                List<Token> tokens = new StreamingLexerImplementation(new StringReader(source), bufferSize).scanTokens();
+                assertSameTokens("buffer of " + bufferSize, expected, describe(tokens));
+            }
+        }
+    }
+
+    @Test
+    public void streamAgreesWithScan() {
+        String source = program(20, "\r\n");
+        List<Token> streamed = new ArrayList<>();
+        TokenStream stream = new StreamingLexerImplementation(new StringReader(source), 7).tokenStream();
+        do {
+            streamed.add(stream.next());
+        } while (streamed.get(streamed.size() - 1).getType() != EOF);
+        assertSameTokens("streamed", expected(source), describe(streamed));
+    }
+
+    @Test
+    public void failsLikeTheReaderLexer() {
+        String source = failingProgram();
+        String expected = error(() -> reference(source).scanTokens());
+        assertNotNull(expected);
+        assertEquals(expected, error(() -> new StreamingLexerImplementation(new StringReader(source), 5).scanTokens()));
+    }
+}
@@ -0,0 +1,23 @@
+package cache;
+
+import statement.Statement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Keeps what programs parsed to, under a key computed from their source, so that a source seen before can be
+ * run without lexing and parsing it again.
+ */
+public interface AstCache {
+
+    /** The key of the source file as it is now, the same for any two files with the same content. */
+    String key(Path source) throws IOException;
+
+    /** The statements stored under the key, or null if there are none or they cannot be read. */
+    List<Statement> load(String key);
+
+    /** Stores freshly parsed statements under the key. A cache that cannot be written to is left as it is. */
+    void store(String key, List<Statement> statements);
+}
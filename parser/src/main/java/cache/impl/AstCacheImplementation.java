@@ -0,0 +1,95 @@
+package cache.impl;
+
+import cache.AstCache;
+import statement.Statement;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A directory of files written by {@link AstWriter}, each named after the SHA-256 of the source it was parsed
+ * from. Entries are written to a temporary file first and moved in place, so a run never reads one that is
+ * half written, even with other runs storing the same program at the same time.
+ */
+public class AstCacheImplementation implements AstCache {
+
+    private static final String EXTENSION = ".ast";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    public AstCacheImplementation(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String key(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to have it.
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(source)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    @Override
+    public List<Statement> load(String key) {
+        Path entry = directory.resolve(key + EXTENSION);
+        try {
+            return new AstReader(Files.readAllBytes(entry)).read();
+        } catch (IOException e) {
+            // Missing, or written by another version: parsing again stores it anew.
+            return null;
+        }
+    }
+
+    @Override
+    public void store(String key, List<Statement> statements) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+                new AstWriter(out).write(statements);
+            }
+            Path entry = directory.resolve(key + EXTENSION);
+            try {
+                Files.move(temporary, entry, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // Nothing more to do about a directory we cannot write to.
+                }
+            }
+        }
+    }
+}
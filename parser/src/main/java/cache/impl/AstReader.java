@@ -0,0 +1,199 @@
+package cache.impl;
+
+import expression.Expression;
+import expression.impl.*;
+import statement.Statement;
+import statement.impl.*;
+import token.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static cache.impl.AstWriter.*;
+
+/**
+ * Reads back statements written by an {@link AstWriter}. Names are interned into a fresh {@link SymbolTable},
+ * so the tree comes back as the parser would have built it. Data that is cut short or was not written by the
+ * same version of the writer is reported as an {@link IOException}.
+ */
+public class AstReader {
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final byte[] data;
+    private int position;
+    private String[] strings = new String[64];
+    private int stringCount = 0;
+    private final SymbolTable symbols = new SymbolTable();
+
+    public AstReader(byte[] data) {
+        this.data = data;
+    }
+
+    public List<Statement> read() throws IOException {
+        if (readFixedInt() != MAGIC) throw new IOException("Not a parsed program");
+        if (readFixedInt() != VERSION) throw new IOException("Parsed program of another version");
+        List<Statement> statements = readStatements();
+        if (position != data.length) throw new IOException("Unexpected data after the program");
+        return statements;
+    }
+
+    private List<Statement> readStatements() throws IOException {
+        int count = readInt();
+        if (count < 0) throw new IOException("Malformed statement count");
+        List<Statement> statements = new ArrayList<>(Math.min(count, data.length - position));
+        for (int i = 0; i < count; i++) {
+            Statement statement = readStatement();
+            if (statement == null) throw new IOException("Missing statement");
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    private Statement readStatement() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case NONE:
+                return null;
+            case EXPRESSION_STATEMENT:
+                return new ExpressionStatement(readExpression());
+            case PRINT_STATEMENT:
+                return new PrintStatement(readExpression());
+            case VARIABLE_STATEMENT: {
+                Token name = readToken();
+                Symbol symbol = readSymbol();
+                Expression expression = readExpression();
+                int type = readByte();
+                return new VariableStatement(name, symbol, expression, type == 0 ? null : type(type - 1), readToken());
+            }
+            case BLOCK_STATEMENT:
+                return new BlockStatement(readStatements());
+            case IF_STATEMENT: {
+                Expression condition = readExpression();
+                Statement thenDo = readStatement();
+                return new IfStatement(condition, thenDo, readStatement());
+            }
+            case WHILE_STATEMENT: {
+                Expression condition = readExpression();
+                return new WhileStatement(condition, readStatement());
+            }
+            default:
+                throw new IOException("Unknown statement tag " + tag);
+        }
+    }
+
+    private Expression readExpression() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case NONE:
+                return null;
+            case BINARY: {
+                Expression left = readExpression();
+                Token operator = readToken();
+                return new BinaryExpression(left, readExpression(), operator);
+            }
+            case GROUPING:
+                return new GroupingExpression(readExpression());
+            case LITERAL:
+                return new LiteralExpression(readValue());
+            case UNARY: {
+                Token operator = readToken();
+                return new UnaryExpression(operator, readExpression());
+            }
+            case VARIABLE: {
+                Token name = readToken();
+                return new VariableExpression(name, readSymbol());
+            }
+            case ASSIGNMENT: {
+                Token name = readToken();
+                Symbol symbol = readSymbol();
+                return new AssigmentExpression(name, symbol, readExpression());
+            }
+            case LOGICAL: {
+                Expression left = readExpression();
+                Token operator = readToken();
+                return new LogicalExpression(left, readExpression(), operator);
+            }
+            default:
+                throw new IOException("Unknown expression tag " + tag);
+        }
+    }
+
+    private Object readValue() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case NULL_VALUE: return null;
+            case NUMBER_VALUE: return Double.longBitsToDouble(((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL));
+            case STRING_VALUE: return readString();
+            case TRUE_VALUE: return true;
+            case FALSE_VALUE: return false;
+            default: throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private Token readToken() throws IOException {
+        int header = readByte();
+        TokenType type = type(header >> 1);
+        int line = readInt();
+        String lexeme = readString();
+        Symbol symbol = (header & 1) != 0 ? symbol(lexeme) : readSymbol();
+        return TokenBuilder.createBuilder()
+                .addType(type)
+                .addLine(line)
+                .addLexeme(lexeme)
+                .addSymbol(symbol)
+                .buildToken();
+    }
+
+    private Symbol readSymbol() throws IOException {
+        return symbol(readString());
+    }
+
+    private Symbol symbol(String name) {
+        return name == null ? null : symbols.intern(name);
+    }
+
+    private TokenType type(int ordinal) throws IOException {
+        if (ordinal >= TYPES.length) throw new IOException("Unknown token type " + ordinal);
+        return TYPES[ordinal];
+    }
+
+    private String readString() throws IOException {
+        int reference = readInt();
+        if (reference == NULL_STRING) return null;
+        if (reference != NEW_STRING) {
+            if (reference < 0 || reference - 2 >= stringCount) throw new IOException("Unknown string " + reference);
+            return strings[reference - 2];
+        }
+        int length = readInt();
+        if (length < 0 || length > data.length - position) throw new EOFException();
+        String string = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        if (stringCount == strings.length) strings = Arrays.copyOf(strings, stringCount * 2);
+        strings[stringCount++] = string;
+        return string;
+    }
+
+    private int readByte() throws IOException {
+        if (position == data.length) throw new EOFException();
+        return data[position++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed number");
+    }
+
+    private int readFixedInt() throws IOException {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+}
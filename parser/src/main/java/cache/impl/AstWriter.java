@@ -0,0 +1,274 @@
+package cache.impl;
+
+import expression.Expression;
+import expression.impl.*;
+import statement.Statement;
+import statement.impl.*;
+import token.Symbol;
+import token.Token;
+import visitor.ExpressionVisitor;
+import visitor.StatementVisitor;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes parsed statements in a compact binary form that {@link AstReader} reads back.
+ *
+ * Every node is a tag byte followed by its fields, children first to last. Counts, lines and string references
+ * are variable length integers. A string is written out the first time it shows up and referred to by its
+ * position after that, so a name used all over a program is stored once. Only what the parser produces is
+ * written, not what later passes attach to the nodes.
+ */
+public class AstWriter implements StatementVisitor, ExpressionVisitor {
+
+    static final int MAGIC = 0x50534153;
+    static final int VERSION = 1;
+
+    static final int NONE = 0;
+
+    static final int EXPRESSION_STATEMENT = 1;
+    static final int PRINT_STATEMENT = 2;
+    static final int VARIABLE_STATEMENT = 3;
+    static final int BLOCK_STATEMENT = 4;
+    static final int IF_STATEMENT = 5;
+    static final int WHILE_STATEMENT = 6;
+
+    static final int BINARY = 1;
+    static final int GROUPING = 2;
+    static final int LITERAL = 3;
+    static final int UNARY = 4;
+    static final int VARIABLE = 5;
+    static final int ASSIGNMENT = 6;
+    static final int LOGICAL = 7;
+
+    static final int NULL_VALUE = 0;
+    static final int NUMBER_VALUE = 1;
+    static final int STRING_VALUE = 2;
+    static final int TRUE_VALUE = 3;
+    static final int FALSE_VALUE = 4;
+
+    // String references: 0 is null, 1 a string written out right after, n + 2 the n-th string written.
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public AstWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    public void write(List<Statement> statements) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        try {
+            writeStatements(statements);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void visitExpressionStatement(ExpressionStatement statement) {
+        writeTag(EXPRESSION_STATEMENT);
+        writeExpression(statement.getExpression());
+    }
+
+    @Override
+    public void visitPrintStatement(PrintStatement statement) {
+        writeTag(PRINT_STATEMENT);
+        writeExpression(statement.getExpression());
+    }
+
+    @Override
+    public void visitVariableStatement(VariableStatement statement) {
+        writeTag(VARIABLE_STATEMENT);
+        writeToken(statement.getName());
+        writeSymbol(statement.getSymbol());
+        writeExpression(statement.getExpression());
+        writeTag(statement.getType() == null ? 0 : statement.getType().ordinal() + 1);
+        writeToken(statement.getKeyWord());
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement statement) {
+        writeTag(BLOCK_STATEMENT);
+        writeStatements(statement.getStatement());
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement statement) {
+        writeTag(IF_STATEMENT);
+        writeExpression(statement.getCondition());
+        writeStatement(statement.getThenDo());
+        writeStatement(statement.getElseDo());
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement statement) {
+        writeTag(WHILE_STATEMENT);
+        writeExpression(statement.getCondition());
+        writeStatement(statement.getBody());
+    }
+
+    @Override
+    public Object visitBinary(BinaryExpression expression) {
+        writeTag(BINARY);
+        writeExpression(expression.getLeft());
+        writeToken(expression.getOperator());
+        writeExpression(expression.getRight());
+        return null;
+    }
+
+    @Override
+    public Object visitGrouping(GroupingExpression expression) {
+        writeTag(GROUPING);
+        writeExpression(expression.getExpression());
+        return null;
+    }
+
+    @Override
+    public Object visitLiteral(LiteralExpression expression) {
+        writeTag(LITERAL);
+        Object value = expression.getValue();
+        try {
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+            } else if (value instanceof Double) {
+                out.writeByte(NUMBER_VALUE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean) value ? TRUE_VALUE : FALSE_VALUE);
+            } else {
+                out.writeByte(STRING_VALUE);
+                writeString(value.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitUnary(UnaryExpression expression) {
+        writeTag(UNARY);
+        writeToken(expression.getOperator());
+        writeExpression(expression.getRight());
+        return null;
+    }
+
+    @Override
+    public Object visitVariable(VariableExpression expression) {
+        writeTag(VARIABLE);
+        writeToken(expression.getName());
+        writeSymbol(expression.getSymbol());
+        return null;
+    }
+
+    @Override
+    public Object visitAssignment(AssigmentExpression expression) {
+        writeTag(ASSIGNMENT);
+        writeToken(expression.getName());
+        writeSymbol(expression.getSymbol());
+        writeExpression(expression.getExpression());
+        return null;
+    }
+
+    @Override
+    public Object visitLogical(LogicalExpression expression) {
+        writeTag(LOGICAL);
+        writeExpression(expression.getLeft());
+        writeToken(expression.getOperator());
+        writeExpression(expression.getRight());
+        return null;
+    }
+
+    private void writeStatements(List<Statement> statements) {
+        writeInt(statements.size());
+        for (Statement statement : statements) {
+            writeStatement(statement);
+        }
+    }
+
+    private void writeStatement(Statement statement) {
+        if (statement == null) {
+            writeTag(NONE);
+        } else {
+            statement.accept(this);
+        }
+    }
+
+    private void writeExpression(Expression expression) {
+        if (expression == null) {
+            writeTag(NONE);
+        } else {
+            expression.accept(this);
+        }
+    }
+
+    // Tokens in the tree carry no literal, the values being in literal expressions. The low bit of the first
+    // byte tells whether the symbol is named like the lexeme, as for every name the lexer scans.
+    private void writeToken(Token token) {
+        String lexeme = token.getLexeme();
+        Symbol symbol = token.getSymbol();
+        boolean named = symbol != null && symbol.getName().equals(lexeme);
+        writeTag(token.getType().ordinal() << 1 | (named ? 1 : 0));
+        writeInt(token.getLine());
+        writeString(lexeme);
+        if (!named) writeSymbol(symbol);
+    }
+
+    private void writeSymbol(Symbol symbol) {
+        writeString(symbol == null ? null : symbol.getName());
+    }
+
+    private void writeString(String string) {
+        if (string == null) {
+            writeInt(NULL_STRING);
+            return;
+        }
+        Integer index = strings.get(string);
+        if (index != null) {
+            writeInt(index + 2);
+            return;
+        }
+        strings.put(string, strings.size());
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeInt(NEW_STRING);
+        writeInt(bytes.length);
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTag(int tag) {
+        try {
+            out.writeByte(tag);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Seven bits at a time, lowest first, the high bit set on every byte but the last.
+    private void writeInt(int value) {
+        try {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
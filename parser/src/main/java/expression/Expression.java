@@ -1,7 +1,12 @@
 package expression;
 
+import token.TokenType;
 import visitor.ExpressionVisitor;
 
 public interface Expression {
     Object accept(ExpressionVisitor expressionVisitor);
+
+    /** NUMBER_TYPE, STRING_TYPE or BOOLEAN when the resolver could tell the type of the value, null otherwise. */
+    TokenType getStaticType();
+    void setStaticType(TokenType staticType);
 }
@@ -0,0 +1,20 @@
+package expression.impl;
+
+import expression.Expression;
+import token.TokenType;
+
+/** Holds the static type every kind of expression carries. */
+abstract class AbstractExpression implements Expression {
+
+    private TokenType staticType;
+
+    @Override
+    public TokenType getStaticType() {
+        return staticType;
+    }
+
+    @Override
+    public void setStaticType(TokenType staticType) {
+        this.staticType = staticType;
+    }
+}
@@ -1,17 +1,23 @@
 package expression.impl;
 
 import expression.Expression;
+import token.Symbol;
 import token.Token;
 import visitor.ExpressionVisitor;
 
-public class AssigmentExpression implements Expression {
+public class AssigmentExpression extends AbstractExpression {
 
     private Expression expression;
     private Token name;
+    private Symbol symbol;
+    private int depth = -1;
+    private int slot;
+    private boolean verified;
 
-    public AssigmentExpression(Token name, Expression expression) {
+    public AssigmentExpression(Token name, Symbol symbol, Expression expression) {
         this.expression = expression;
         this.name = name;
+        this.symbol = symbol;
     }
 
     @Override
@@ -26,4 +32,35 @@ public class AssigmentExpression implements Expression {
     public Token getName() {
         return name;
     }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /** Binds the name to the declaration {@code slot} of the scope {@code depth} levels out. */
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public boolean isResolved() {
+        return depth >= 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    /** Whether the type checker proved the variable can take the value. */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
 }
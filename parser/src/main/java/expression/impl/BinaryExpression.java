@@ -4,7 +4,7 @@ import expression.Expression;
 import token.Token;
 import visitor.ExpressionVisitor;
 
-public class BinaryExpression implements Expression {
+public class BinaryExpression extends AbstractExpression {
 
     private Expression left, right;
     private Token operator;
@@ -3,7 +3,7 @@ package expression.impl;
 import expression.Expression;
 import visitor.ExpressionVisitor;
 
-public class GroupingExpression implements Expression {
+public class GroupingExpression extends AbstractExpression {
 
     private Expression expression;
 
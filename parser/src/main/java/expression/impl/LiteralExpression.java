@@ -1,9 +1,8 @@
 package expression.impl;
 
-import expression.Expression;
 import visitor.ExpressionVisitor;
 
-public class LiteralExpression implements Expression {
+public class LiteralExpression extends AbstractExpression {
 
     private Object value;
 
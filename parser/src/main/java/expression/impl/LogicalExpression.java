@@ -0,0 +1,35 @@
+package expression.impl;
+
+import expression.Expression;
+import token.Token;
+import visitor.ExpressionVisitor;
+
+/** An and or an or. The right side is only evaluated when the left one does not decide the result. */
+public class LogicalExpression extends AbstractExpression {
+
+    private Expression left, right;
+    private Token operator;
+
+    public LogicalExpression(Expression left, Expression right, Token operator) {
+        this.left = left;
+        this.right = right;
+        this.operator = operator;
+    }
+
+    @Override
+    public Object accept(ExpressionVisitor expressionVisitor) {
+        return expressionVisitor.visitLogical(this);
+    }
+
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+
+    public Token getOperator() {
+        return operator;
+    }
+}
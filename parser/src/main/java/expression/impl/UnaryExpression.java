@@ -4,7 +4,7 @@ import expression.Expression;
 import token.Token;
 import visitor.ExpressionVisitor;
 
-public class UnaryExpression implements Expression {
+public class UnaryExpression extends AbstractExpression {
 
     private Token operator;
     private Expression right;
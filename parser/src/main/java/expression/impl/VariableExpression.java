@@ -1,15 +1,19 @@
 package expression.impl;
 
-import expression.Expression;
+import token.Symbol;
 import token.Token;
 import visitor.ExpressionVisitor;
 
-public class VariableExpression implements Expression {
+public class VariableExpression extends AbstractExpression {
 
     private Token name;
+    private Symbol symbol;
+    private int depth = -1;
+    private int slot;
 
-    public VariableExpression(Token name) {
+    public VariableExpression(Token name, Symbol symbol) {
         this.name = name;
+        this.symbol = symbol;
     }
 
     @Override
@@ -21,4 +25,26 @@ public class VariableExpression implements Expression {
     public Token getName() {
         return name;
     }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    /** Binds the name to the declaration {@code slot} of the scope {@code depth} levels out. */
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public boolean isResolved() {
+        return depth >= 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
 }
@@ -0,0 +1,156 @@
+package parser.impl;
+
+import exception.ParseException;
+import parser.Parser;
+import statement.Statement;
+import token.Token;
+import token.TokenBuffer;
+import token.TokenType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static token.TokenType.*;
+
+/**
+ * Parses runs of top-level statements on several threads, each with its own {@link ParserImplementation}, and
+ * puts the statements back together in order.
+ *
+ * A pass over the tokens finds where top-level statements end: at a ';' or a '}' outside any parentheses and
+ * braces, unless an else follows. Parsing a statement never reads past that point, not even when it fails, so
+ * the first run that fails reports the same error on the same line as parsing sequentially would.
+ */
+public class ParallelParserImplementation implements Parser {
+
+    // Runs shorter than this, in tokens, are not worth a task.
+    private static final int MIN_RANGE_SIZE = 1 << 16;
+    // More runs than threads, so that threads finishing early pick up more work.
+    private static final int RANGES_PER_THREAD = 4;
+
+    private final List<Token> tokens;
+    private final TokenBuffer buffer;
+    private final ForkJoinPool pool;
+    private final int rangeSize;
+
+    /** The tokens must end with an EOF token, as the ones returned by {@link lexer.Lexer#scanTokens()}. */
+    public ParallelParserImplementation(List<Token> tokens) {
+        this(tokens, ForkJoinPool.commonPool());
+    }
+
+    public ParallelParserImplementation(List<Token> tokens, ForkJoinPool pool) {
+        this(tokens, pool, MIN_RANGE_SIZE);
+    }
+
+    public ParallelParserImplementation(List<Token> tokens, ForkJoinPool pool, int minRangeSize) {
+        this.tokens = tokens;
+        // Token types are read straight from a buffer, without building the tokens.
+        this.buffer = tokens instanceof TokenBuffer ? (TokenBuffer) tokens : null;
+        this.pool = pool;
+        this.rangeSize = Math.max(minRangeSize, tokens.size() / (pool.getParallelism() * RANGES_PER_THREAD));
+    }
+
+    @Override
+    public List<Statement> parse() {
+        int[] bounds = split();
+        if (bounds.length == 2) return new ParserImplementation(tokens).parse();
+
+        List<ForkJoinTask<Range>> ranges = new ArrayList<>();
+        for (int i = 0; i < bounds.length - 1; i++) {
+            Range range = new Range(bounds[i], bounds[i + 1]);
+            ranges.add(pool.submit(range::parse));
+        }
+
+        List<Statement> statements = new ArrayList<>();
+        for (ForkJoinTask<Range> task : ranges) {
+            Range range = task.join();
+            if (range.failure != null) throw range.failure;
+            statements.addAll(range.statements);
+        }
+        return statements;
+    }
+
+    // Range bounds at top-level statement ends, the last one being the EOF token.
+    private int[] split() {
+        int end = tokens.size() - 1;
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int parens = 0;
+        int braces = 0;
+        int last = 0;
+        for (int i = 0; i < end; i++) {
+            TokenType type = typeOf(i);
+            switch (type) {
+                case LEFT_PAREN: parens++; break;
+                case RIGHT_PAREN: parens--; break;
+                case LEFT_BRACE: braces++; break;
+                case RIGHT_BRACE: braces--; break;
+                case IDENTIFIER:
+                    // Each parser would intern a name without a symbol in a table of its own.
+                    if (symbolless(i)) return new int[]{0, end};
+                    break;
+            }
+            if ((type == SEMICOLON || type == RIGHT_BRACE) && parens == 0 && braces == 0
+                    && i + 1 - last >= rangeSize && i + 1 < end && typeOf(i + 1) != ELSE) {
+                bounds.add(i + 1);
+                last = i + 1;
+            }
+        }
+        bounds.add(end);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private TokenType typeOf(int index) {
+        return buffer != null ? buffer.getType(index) : tokens.get(index).getType();
+    }
+
+    private boolean symbolless(int index) {
+        return buffer != null ? buffer.getSymbol(index) == null : tokens.get(index).getSymbol() == null;
+    }
+
+    private class Range {
+
+        private final int from;
+        private final int to;
+        private List<Statement> statements;
+        private ParseException failure;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        Range parse() {
+            try {
+                statements = new ParserImplementation(new RangeTokens(from, to)).parse();
+            } catch (ParseException e) {
+                failure = e;
+            }
+            return this;
+        }
+    }
+
+    // The tokens of a range, followed by the EOF token.
+    private class RangeTokens extends AbstractList<Token> {
+
+        private final int from;
+        private final int to;
+
+        RangeTokens(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Token get(int index) {
+            return tokens.get(index < to - from ? from + index : tokens.size() - 1);
+        }
+
+        @Override
+        public int size() {
+            return to - from + 1;
+        }
+    }
+}
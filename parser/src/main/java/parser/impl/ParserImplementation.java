@@ -3,23 +3,34 @@ package parser.impl;
 import exception.ParseException;
 import expression.Expression;
 import expression.impl.*;
+import lexer.TokenStream;
+import lexer.impl.ListTokenStream;
 import parser.Parser;
 import statement.Statement;
 import statement.impl.*;
+import token.Symbol;
+import token.SymbolTable;
 import token.Token;
 import token.TokenType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static token.TokenType.*;
 
 public class ParserImplementation implements Parser {
 
-    private List<Token> tokens;
-    private int current = 0;
+    private TokenStream tokens;
+    private Token previous;
+    // Only for identifier tokens that were not built by a lexer and come without a symbol.
+    private SymbolTable symbols;
 
     public ParserImplementation(List<Token> tokens) {
+        this(new ListTokenStream(tokens));
+    }
+
+    public ParserImplementation(TokenStream tokens) {
         this.tokens = tokens;
     }
 
@@ -40,6 +51,8 @@ public class ParserImplementation implements Parser {
 
     private Statement statement() {
         if (match(IF)) return ifStatement();
+        if (match(WHILE)) return whileStatement();
+        if (match(FOR)) return forStatement();
         if (match(PRINT)) return printStatement();
         if (match(LEFT_BRACE)) return new BlockStatement(block());
 
@@ -71,7 +84,7 @@ public class ParserImplementation implements Parser {
         }
 
         consume(SEMICOLON, "Expect ';' after variable declaration.");
-        return new VariableStatement(name, initializer, type, keyword);
+        return new VariableStatement(name, symbolOf(name), initializer, type, keyword);
     }
 
     private Expression expression() {
@@ -79,15 +92,15 @@ public class ParserImplementation implements Parser {
     }
 
     private Expression assignment() {
-        Expression expr = comparison();
+        Expression expr = or();
 
         if (match(EQUAL)) {
             Token equals = previous();
             Expression value = assignment();
 
             if (expr instanceof VariableExpression) {
-                Token name = ((VariableExpression)expr).getName();
-                return new AssigmentExpression(name, value);
+                VariableExpression variable = (VariableExpression)expr;
+                return new AssigmentExpression(variable.getName(), variable.getSymbol(), value);
             }
 
             throw new ParseException("Invalid assignment target.", equals);
@@ -96,6 +109,30 @@ public class ParserImplementation implements Parser {
         return expr;
     }
 
+    private Expression or() {
+        Expression expr = and();
+
+        while (match(OR)) {
+            Token operator = previous();
+            Expression right = and();
+            expr = new LogicalExpression(expr, right, operator);
+        }
+
+        return expr;
+    }
+
+    private Expression and() {
+        Expression expr = comparison();
+
+        while (match(AND)) {
+            Token operator = previous();
+            Expression right = comparison();
+            expr = new LogicalExpression(expr, right, operator);
+        }
+
+        return expr;
+    }
+
     private Expression comparison() {
         Expression expr = addition();
 
@@ -151,7 +188,7 @@ public class ParserImplementation implements Parser {
         }
 
         if (match(IDENTIFIER)) {
-            return new VariableExpression(previous());
+            return new VariableExpression(previous(), symbolOf(previous()));
         }
 
         if (match(LEFT_PAREN)) {
@@ -175,7 +212,7 @@ public class ParserImplementation implements Parser {
     }
 
     private Token advance() {
-        if (!isAtEnd()) current++;
+        if (!isAtEnd()) previous = tokens.next();
         return previous();
     }
 
@@ -185,7 +222,7 @@ public class ParserImplementation implements Parser {
     }
 
     private Token peek() {
-        return tokens.get(current);
+        return tokens.peek(0);
     }
 
     private boolean isAtEnd() {
@@ -193,7 +230,7 @@ public class ParserImplementation implements Parser {
     }
 
     private Token previous() {
-        return tokens.get(current - 1);
+        return previous;
     }
 
     private Token consume(TokenType type, String message) {
@@ -202,6 +239,13 @@ public class ParserImplementation implements Parser {
         throw new ParseException(message, peek());
     }
 
+    private Symbol symbolOf(Token name) {
+        if (name.getSymbol() != null) return name.getSymbol();
+
+        if (symbols == null) symbols = new SymbolTable();
+        return symbols.intern(name.getLexeme());
+    }
+
     private List<Statement> block() {
         List<Statement> statements = new ArrayList<>();
 
@@ -227,6 +271,53 @@ public class ParserImplementation implements Parser {
         return new IfStatement(condition, thenBranch, elseBranch);
     }
 
+    private Statement whileStatement() {
+        consume(LEFT_PAREN, "Expect '(' after 'while'.");
+        Expression condition = expression();
+        consume(RIGHT_PAREN, "Expect ')' after condition.");
+        Statement body = statement();
+
+        return new WhileStatement(condition, body);
+    }
+
+    // A for loop is a while loop inside a block that holds the initializer.
+    private Statement forStatement() {
+        consume(LEFT_PAREN, "Expect '(' after 'for'.");
+
+        Statement initializer;
+        if (match(SEMICOLON)) {
+            initializer = null;
+        } else if (match(LET, CONST)) {
+            initializer = varDeclaration(previous());
+        } else {
+            initializer = expressionStatement();
+        }
+
+        Expression condition = null;
+        if (!check(SEMICOLON)) {
+            condition = expression();
+        }
+        consume(SEMICOLON, "Expect ';' after loop condition.");
+
+        Expression increment = null;
+        if (!check(RIGHT_PAREN)) {
+            increment = expression();
+        }
+        consume(RIGHT_PAREN, "Expect ')' after for clauses.");
+
+        Statement body = statement();
+        if (increment != null) {
+            body = new BlockStatement(Arrays.asList(body, new ExpressionStatement(increment)));
+        }
+        if (condition == null) condition = new LiteralExpression(true);
+        body = new WhileStatement(condition, body);
+        if (initializer != null) {
+            body = new BlockStatement(Arrays.asList(initializer, body));
+        }
+
+        return body;
+    }
+
     private Statement printStatement() {
         Expression value = expression();
         consume(SEMICOLON, "Expect ';' after value.");
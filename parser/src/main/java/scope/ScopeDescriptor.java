@@ -0,0 +1,56 @@
+package scope;
+
+import statement.Statement;
+import statement.impl.VariableStatement;
+import token.Symbol;
+import token.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Name, keyword and type of every variable declared directly in a scope, indexed by slot in declaration
+ * order. It is computed once from the scope's statements and shared by every frame created for it.
+ */
+public class ScopeDescriptor {
+
+    private Symbol[] names;
+    private TokenType[] keywords;
+    private TokenType[] types;
+
+    private ScopeDescriptor(List<VariableStatement> declarations) {
+        names = new Symbol[declarations.size()];
+        keywords = new TokenType[declarations.size()];
+        types = new TokenType[declarations.size()];
+        for (int slot = 0; slot < declarations.size(); slot++) {
+            VariableStatement declaration = declarations.get(slot);
+            names[slot] = declaration.getSymbol();
+            keywords[slot] = declaration.getKeyWord().getType();
+            types[slot] = declaration.getType();
+        }
+    }
+
+    public static ScopeDescriptor of(List<Statement> statements) {
+        List<VariableStatement> declarations = new ArrayList<>();
+        for (Statement statement : statements) {
+            if (statement instanceof VariableStatement) declarations.add((VariableStatement) statement);
+        }
+        return new ScopeDescriptor(declarations);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public Symbol getName(int slot) {
+        return names[slot];
+    }
+
+    public TokenType getKeyword(int slot) {
+        return keywords[slot];
+    }
+
+    public TokenType getType(int slot) {
+        return types[slot];
+    }
+}
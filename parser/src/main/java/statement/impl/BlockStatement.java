@@ -1,5 +1,6 @@
 package statement.impl;
 
+import scope.ScopeDescriptor;
 import statement.Statement;
 import visitor.StatementVisitor;
 
@@ -8,9 +9,11 @@ import java.util.List;
 public class BlockStatement implements Statement {
 
     private List<Statement> statements;
+    private ScopeDescriptor scope;
 
     public BlockStatement(List<Statement> statements) {
         this.statements = statements;
+        this.scope = ScopeDescriptor.of(statements);
     }
 
     @Override
@@ -21,4 +24,9 @@ public class BlockStatement implements Statement {
     public List<Statement> getStatement() {
         return statements;
     }
+
+    /** Variables declared directly in this block. */
+    public ScopeDescriptor getScope() {
+        return scope;
+    }
 }
@@ -2,6 +2,7 @@ package statement.impl;
 
 import expression.Expression;
 import statement.Statement;
+import token.Symbol;
 import token.Token;
 import token.TokenType;
 import visitor.StatementVisitor;
@@ -9,12 +10,16 @@ import visitor.StatementVisitor;
 public class VariableStatement implements Statement {
 
     private Token name;
+    private Symbol symbol;
     private Expression expression;
     private TokenType type;
     private Token keyWord;
+    private int slot;
+    private boolean verified;
 
-    public VariableStatement(Token name, Expression expression, TokenType type, Token keyWord) {
+    public VariableStatement(Token name, Symbol symbol, Expression expression, TokenType type, Token keyWord) {
         this.name = name;
+        this.symbol = symbol;
         this. expression = expression;
         this.type = type;
         this.keyWord = keyWord;
@@ -40,4 +45,25 @@ public class VariableStatement implements Statement {
     public Token getKeyWord() {
         return keyWord;
     }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /** Whether the type checker proved the initializer has the declared type. */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
 }
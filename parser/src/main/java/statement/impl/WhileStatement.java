@@ -0,0 +1,43 @@
+package statement.impl;
+
+import expression.Expression;
+import statement.Statement;
+import visitor.StatementVisitor;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+public class WhileStatement implements Statement {
+
+    private Expression condition;
+    private Statement body;
+    private Set<Expression> invariants = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public WhileStatement(Expression condition, Statement body) {
+        this.condition = condition;
+        this.body = body;
+    }
+
+    @Override
+    public void accept(StatementVisitor statementVisitor) {
+        statementVisitor.visitWhileStatement(this);
+    }
+
+    public Expression getCondition() {
+        return condition;
+    }
+
+    public Statement getBody() {
+        return body;
+    }
+
+    /** Whether the resolver found that this part of the condition keeps its value while the loop runs. */
+    public boolean isInvariant(Expression expression) {
+        return invariants.contains(expression);
+    }
+
+    public void addInvariant(Expression expression) {
+        invariants.add(expression);
+    }
+}
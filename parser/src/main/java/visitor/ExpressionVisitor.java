@@ -9,4 +9,5 @@ public interface ExpressionVisitor {
     Object visitUnary(UnaryExpression expression);
     Object visitVariable(VariableExpression expression);
     Object visitAssignment(AssigmentExpression expression);
+    Object visitLogical(LogicalExpression expression);
 }
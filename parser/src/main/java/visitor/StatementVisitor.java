@@ -9,4 +9,5 @@ public interface StatementVisitor {
     void visitVariableStatement(VariableStatement statement);
     void visitBlockStatement(BlockStatement statement);
     void visitIfStatement(IfStatement statement);
+    void visitWhileStatement(WhileStatement statement);
 }
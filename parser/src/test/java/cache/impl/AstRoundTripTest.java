@@ -0,0 +1,116 @@
+package cache.impl;
+
+import cache.AstCache;
+import expression.impl.VariableExpression;
+import lexer.impl.LexerImplementation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import parser.impl.ParserImplementation;
+import statement.Statement;
+import statement.impl.PrintStatement;
+import statement.impl.VariableStatement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AstRoundTripTest {
+
+    // Every kind of statement and expression the writer has a tag for.
+    private static final String PROGRAM = ""
+            + "let x: number = 1234.5;\n"
+            + "let empty: string;\n"
+            + "const s: string = \"text with ; and // inside\";\n"
+            + "const b: boolean = true and false or x > 3;\n"
+            + "print x;\n"
+            + "print (x + -2) * 3 / 4 - 5;\n"
+            + "{\n"
+            + "    let inner: number = x;\n"
+            + "    inner = inner + 1;\n"
+            + "    print s + inner + empty;\n"
+            + "}\n"
+            + "if (x >= 10 and b) {\n"
+            + "    print \"big\";\n"
+            + "} else if (x < 0) {\n"
+            + "    print \"negative\";\n"
+            + "} else {\n"
+            + "    print false;\n"
+            + "}\n"
+            + "while (x <= 2000) {\n"
+            + "    x = x * 2;\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Statement> parse(String source) {
+        return new ParserImplementation(new LexerImplementation(source).scanTokens()).parse();
+    }
+
+    private static byte[] write(List<Statement> statements) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new AstWriter(out).write(statements);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void readingBackWritesTheSameBytes() throws IOException {
+        byte[] written = write(parse(PROGRAM));
+        List<Statement> read = new AstReader(written).read();
+        assertEquals(parse(PROGRAM).size(), read.size());
+        assertArrayEquals(written, write(read));
+    }
+
+    @Test
+    public void readingBackSharesSymbols() throws IOException {
+        List<Statement> read = new AstReader(write(parse(PROGRAM))).read();
+        VariableStatement declaration = (VariableStatement) read.get(0);
+        VariableExpression use = (VariableExpression) ((PrintStatement) read.get(4)).getExpression();
+        assertEquals("x", use.getName().getLexeme());
+        assertSame(declaration.getSymbol(), use.getSymbol());
+    }
+
+    @Test
+    public void cutShortIsAnError() throws IOException {
+        byte[] written = write(parse(PROGRAM));
+        for (int length = 0; length < written.length; length++) {
+            try {
+                new AstReader(Arrays.copyOf(written, length)).read();
+                fail("Read a program cut at " + length + " of " + written.length + " bytes");
+            } catch (IOException expected) {
+                // What the cache takes for a miss.
+            }
+        }
+    }
+
+    @Test
+    public void cacheLoadsWhatItStored() throws IOException {
+        Path source = folder.newFile("program.ps").toPath();
+        Files.write(source, PROGRAM.getBytes(StandardCharsets.UTF_8));
+        AstCache cache = new AstCacheImplementation(folder.getRoot().toPath().resolve("cache"));
+
+        String key = cache.key(source);
+        assertNull(cache.load(key));
+        cache.store(key, parse(PROGRAM));
+        assertArrayEquals(write(parse(PROGRAM)), write(cache.load(key)));
+
+        Files.write(source, (PROGRAM + "print 1;\n").getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(key, cache.key(source));
+    }
+
+    @Test
+    public void damagedEntryIsAMiss() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        AstCache cache = new AstCacheImplementation(directory);
+        byte[] written = write(parse(PROGRAM));
+        Files.write(directory.resolve("damaged.ast"), Arrays.copyOf(written, written.length / 2));
+        assertNull(cache.load("damaged"));
+    }
+}
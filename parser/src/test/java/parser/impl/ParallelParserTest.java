@@ -0,0 +1,109 @@
+package parser.impl;
+
+import cache.impl.AstWriter;
+import exception.ParseException;
+import lexer.impl.LexerImplementation;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import statement.Statement;
+import token.Token;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parsing top-level statements in parallel must build the same tree as parsing them in order, and fail with
+ * the same error on the same line.
+ */
+public class ParallelParserTest {
+
+    private static final int[] RANGE_SIZES = { 1, 5, 50, 1000 };
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    // Nine lines per repeat, with statements ending in '}' followed by an else, and braces inside parentheses.
+    private static String program(int repeats) {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < repeats; i++) {
+            source.append("let v").append(i).append(": number = (1 + 2) * ").append(i).append(";\n")
+                    .append("if (v").append(i).append(" > 10) {\n")
+                    .append("    print \"}; {\";\n")
+                    .append("}\n")
+                    .append("else {\n")
+                    .append("    { v").append(i).append(" = v").append(i).append(" - 1; }\n")
+                    .append("}\n")
+                    .append("while (v").append(i).append(" < 3) v").append(i).append(" = v").append(i).append(" + 1;\n")
+                    .append("print v").append(i).append(";\n");
+        }
+        return source.toString();
+    }
+
+    private static List<Token> tokens(String source) {
+        return new LexerImplementation(source).scanTokens();
+    }
+
+    private static byte[] write(List<Statement> statements) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new AstWriter(out).write(statements);
+        return out.toByteArray();
+    }
+
+    private static String error(Runnable parse) {
+        try {
+            parse.run();
+            return null;
+        } catch (ParseException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    public void buildsTheSameTree() throws IOException {
+        List<Token> tokens = tokens(program(100));
+        byte[] expected = write(new ParserImplementation(tokens).parse());
+        for (int rangeSize : RANGE_SIZES) {
+            List<Statement> statements = new ParallelParserImplementation(tokens, pool, rangeSize).parse();
+            assertArrayEquals("ranges of " + rangeSize, expected, write(statements));
+        }
+    }
+
+    @Test
+    public void reportsTheFirstErrorOnItsLine() {
+        // Line 9 * 40 + 1 is broken, and so is the one after it, which must not be the one reported.
+        String source = program(40) + "let broken = 5;\nprint (1;\n" + program(40);
+        List<Token> tokens = tokens(source);
+        String expected = error(() -> new ParserImplementation(tokens).parse());
+        assertEquals("Need to specify variable type at line 361", expected);
+        for (int rangeSize : RANGE_SIZES) {
+            assertEquals("ranges of " + rangeSize, expected,
+                    error(() -> new ParallelParserImplementation(tokens, pool, rangeSize).parse()));
+        }
+    }
+
+    @Test
+    public void reportsAnUnclosedBlockAtTheEnd() {
+        String source = program(40) + "{\n    print 1;\n";
+        List<Token> tokens = tokens(source);
+        String expected = error(() -> new ParserImplementation(tokens).parse());
+        assertNotNull(expected);
+        for (int rangeSize : RANGE_SIZES) {
+            assertEquals("ranges of " + rangeSize, expected,
+                    error(() -> new ParallelParserImplementation(tokens, pool, rangeSize).parse()));
+        }
+    }
+}
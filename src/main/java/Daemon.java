@@ -0,0 +1,207 @@
+import output.BufferedOutput;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs many programs in the same JVM, so that all but the first few run on code the JIT has already compiled.
+ * Requests are read from standard input, or from connections to a port on the loopback address, one per line:
+ *
+ *   MODE FILE   runs the file in the mode, as the command line does
+ *   STATS       reports how many requests were served, how fast and how long they took
+ *
+ * Every request runs on a thread of its own, through a fresh {@link Tar} printing to a buffer of its own, so
+ * answers come back as requests finish rather than in order. An answer is a line "ID STATUS MICROSECONDS
+ * LENGTH" followed by LENGTH characters of output, where ID counts the requests of the input or connection
+ * from 1, STATUS is OK or ERROR, and the output of a failed program ends with the error on a line of its own.
+ */
+class Daemon {
+
+    // Requests running at once, past which reading more waits for some to finish.
+    private static final int MAX_RUNNING = 256;
+    private static final int BACKLOG = 50;
+
+    private final File cache;
+    private final ExecutorService executor = executor();
+    private final Semaphore running = new Semaphore(MAX_RUNNING);
+    private final Statistics statistics = new Statistics();
+
+    /** The cache is where parsed programs are kept, or null to parse every request. */
+    Daemon(File cache) {
+        this.cache = cache;
+    }
+
+    /** Answers requests from standard input on standard output until the input ends. */
+    int serveStandardInput() throws IOException {
+        serve(new InputStreamReader(System.in), new OutputStreamWriter(System.out));
+        executor.shutdown();
+        System.err.print(statistics.report());
+        return 0;
+    }
+
+    /** Answers requests from connections to the port until the process is stopped. Port 0 picks a free one. */
+    int serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+            System.err.println("Listening on port " + server.getLocalPort());
+            while (true) {
+                Socket socket = server.accept();
+                executor.execute(() -> connection(socket));
+            }
+        }
+    }
+
+    // Virtual threads came with Java 21, older ones get a pool that grows with the requests running.
+    private static ExecutorService executor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void connection(Socket socket) {
+        try (Socket closing = socket) {
+            serve(new InputStreamReader(closing.getInputStream()), new OutputStreamWriter(closing.getOutputStream()));
+        } catch (IOException e) {
+            // The client went away, nothing is left to answer.
+        }
+    }
+
+    // Reads requests until the input ends, then waits until every one of them is answered.
+    private void serve(Reader input, Writer output) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        Writer writer = new BufferedWriter(output);
+        Phaser pending = new Phaser(1);
+        int id = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            Request request = new Request(++id, line);
+            running.acquireUninterruptibly();
+            pending.register();
+            executor.execute(() -> {
+                try {
+                    answer(request, writer);
+                } finally {
+                    pending.arriveAndDeregister();
+                    running.release();
+                }
+            });
+        }
+        pending.arriveAndAwaitAdvance();
+    }
+
+    private void answer(Request request, Writer writer) {
+        long start = System.nanoTime();
+        StringWriter printed = new StringWriter();
+        boolean report = request.line.equals("STATS");
+        boolean failed = false;
+        if (report) {
+            printed.write(statistics.report());
+        } else {
+            failed = !run(request.line, printed);
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        if (!report) statistics.record(micros, failed);
+
+        String text = printed.toString();
+        synchronized (writer) {
+            try {
+                writer.write(request.id + " " + (failed ? "ERROR" : "OK") + " " + micros + " " + text.length() + "\n");
+                writer.write(text);
+                writer.flush();
+            } catch (IOException e) {
+                // The client went away, the next requests of the connection are answered to nobody.
+            }
+        }
+    }
+
+    // Whether the program ran to the end. What it printed until then is kept either way.
+    private boolean run(String line, StringWriter printed) {
+        int space = line.indexOf(' ');
+        if (space < 0) {
+            printed.write("Expected a mode and a file\n");
+            return false;
+        }
+        Tar tar = new Tar();
+        tar.mode = line.substring(0, space);
+        tar.archive = new File(line.substring(space + 1).trim());
+        tar.cache = cache;
+        BufferedOutput out = new BufferedOutput(printed);
+        try {
+            tar.execute(out);
+            return true;
+        } catch (Exception | StackOverflowError e) {
+            out.println(e.getMessage() != null ? e.getMessage() : e.toString());
+            return false;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private static class Request {
+
+        private final int id;
+        private final String line;
+
+        Request(int id, String line) {
+            this.id = id;
+            this.line = line;
+        }
+    }
+
+    /** Counts and latencies of the requests answered since the daemon started. */
+    private static class Statistics {
+
+        private final long started = System.nanoTime();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+        // Requests by the number of bits of their latency in microseconds, which bounds it within a factor of 2.
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+
+        void record(long micros, boolean failed) {
+            requests.increment();
+            if (failed) errors.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(micros));
+        }
+
+        String report() {
+            long count = requests.sum();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return String.format(Locale.ROOT,
+                    "requests %d, errors %d, uptime %.1f s%n"
+                            + "throughput %.1f requests/s%n"
+                            + "latency mean %d us, p50 < %d us, p99 < %d us, max %d us%n",
+                    count, errors.sum(), seconds,
+                    count / seconds,
+                    count == 0 ? 0 : totalMicros.sum() / count, percentile(0.5, count), percentile(0.99, count),
+                    maxMicros.get());
+        }
+
+        // A bound the latency of the given fraction of requests stays under.
+        private long percentile(double fraction, long count) {
+            long wanted = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int bits = 0; bits < buckets.length(); bits++) {
+                seen += buckets.get(bits);
+                if (seen >= wanted) return 1L << bits;
+            }
+            return maxMicros.get();
+        }
+    }
+}
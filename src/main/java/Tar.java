@@ -1,20 +1,31 @@
-import exception.LexerException;
-import interpreter.Interpreter;
-import interpreter.InterpreterImplementation;
+import cache.AstCache;
+import cache.impl.AstCacheImplementation;
+import engine.Engine;
 import lexer.Lexer;
-import lexer.impl.LexerImplementation;
+import lexer.impl.MappedLexerImplementation;
+import lexer.impl.ParallelLexerImplementation;
+import lexer.impl.StreamingLexerImplementation;
+import output.BufferedOutput;
+import output.Output;
 import parser.Parser;
+import parser.impl.ParallelParserImplementation;
 import parser.impl.ParserImplementation;
 import picocli.CommandLine;
 import statement.Statement;
-import token.Token;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.Callable;
 
 public class Tar implements Callable<Integer> {
 
+    // Files at least this big are scanned straight out of memory instead of through a reader.
+    private static final long MAPPED_LEXER_THRESHOLD = 1 << 20;
+    // And from this size on, on several cores at once.
+    private static final long PARALLEL_LEXER_THRESHOLD = 64 << 20;
+
     @CommandLine.Option(names = { "-f", "--file" }, paramLabel = "ARCHIVE", description = "the archive file")
     File archive;
 
@@ -24,9 +35,22 @@ public class Tar implements Callable<Integer> {
     @CommandLine.Option(names = { "-v", "--version" }, paramLabel = "VERSION", description = "version")
     Double version;
 
+    @CommandLine.Option(names = { "-o", "--output" }, paramLabel = "FILE", description = "where to print, standard output by default")
+    File output;
+
+    @CommandLine.Option(names = { "-c", "--cache" }, paramLabel = "DIR", description = "where to keep parsed programs, so unchanged ones are not parsed again")
+    File cache;
+
+    @CommandLine.Option(names = { "-d", "--daemon" }, description = "keep running, taking programs to run from standard input or from --port")
+    boolean daemon;
+
+    @CommandLine.Option(names = { "-p", "--port" }, paramLabel = "PORT", description = "the loopback port the daemon listens on")
+    Integer port;
+
+    // What the streaming lexer reads from, open until the parser has pulled every token out of it.
+    private Reader source;
     private Lexer lexer;
     private Parser parser;
-    private Interpreter interpreter;
 
     @Override
     public Integer call(){
@@ -36,13 +60,22 @@ public class Tar implements Callable<Integer> {
                     throw new RuntimeException("Version not available");
                 }
             }
-            lexer = new LexerImplementation((new InputStreamReader(new FileInputStream(archive))));
-            parser = new ParserImplementation(lexer.scanTokens());
-            if (mode != null) {
-                if (mode.equals("interpret")) {
-                    interpreter = new InterpreterImplementation();
-                    interpreter.interpret(parser.parse());
+            if (daemon) {
+                Daemon server = new Daemon(cache);
+                return port != null ? server.serve(port) : server.serveStandardInput();
+            }
+            try {
+                parser = cache != null ? cachedParser() : parser();
+                if (mode != null) {
+                    Output out = output != null ? BufferedOutput.toFile(output) : BufferedOutput.standardOutput();
+                    try {
+                        run(out);
+                    } finally {
+                        out.close();
+                    }
                 }
+            } finally {
+                closeSource();
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -50,4 +83,64 @@ public class Tar implements Callable<Integer> {
         }
         return 0;
     }
+
+    /** Parses the archive and runs it in the mode, printing to the given output. */
+    void execute(Output out) throws IOException {
+        try {
+            parser = cache != null ? cachedParser() : parser();
+            run(out);
+        } finally {
+            closeSource();
+        }
+    }
+
+    private void closeSource() throws IOException {
+        if (source != null) {
+            source.close();
+            source = null;
+        }
+    }
+
+    // The mapped lexer reads UTF-8, which is only what a reader would decode when that is the default.
+    private Lexer lexer() throws IOException {
+        long size = archive.length();
+        if (size >= MAPPED_LEXER_THRESHOLD && size <= Integer.MAX_VALUE
+                && Charset.defaultCharset().equals(StandardCharsets.UTF_8)) {
+            if (size >= PARALLEL_LEXER_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+                return new ParallelLexerImplementation(archive.toPath());
+            }
+            return new MappedLexerImplementation(archive.toPath());
+        }
+        source = new InputStreamReader(new FileInputStream(archive));
+        return new StreamingLexerImplementation(source);
+    }
+
+    // Tokens scanned in parallel are all in memory already, so they can be parsed in parallel too.
+    private Parser parser() throws IOException {
+        lexer = lexer();
+        if (lexer instanceof ParallelLexerImplementation) {
+            return new ParallelParserImplementation(lexer.scanTokens());
+        }
+        return new ParserImplementation(lexer.tokenStream());
+    }
+
+    // On a hit the source is neither lexed nor parsed. On a miss it is, and what it parses to is stored.
+    private Parser cachedParser() throws IOException {
+        AstCache astCache = new AstCacheImplementation(cache.toPath());
+        String key = astCache.key(archive.toPath());
+        List<Statement> cached = astCache.load(key);
+        if (cached != null) return () -> cached;
+        Parser parser = parser();
+        return () -> {
+            List<Statement> statements = parser.parse();
+            astCache.store(key, statements);
+            return statements;
+        };
+    }
+
+    // An unknown mode fails before the program is parsed.
+    private void run(Output out) {
+        Engine engine = Engine.forMode(mode);
+        engine.run(Engine.analyze(parser.parse()), out);
+    }
 }
@@ -0,0 +1,111 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/** Requests go in one per line and come back framed, in whatever order they finish. */
+public class DaemonTest {
+
+    private static final String[] MODES = { "interpret", "compile-run", "jvm", "closure", "nodes" };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InputStream standardInput;
+    private PrintStream standardOutput;
+    private PrintStream standardError;
+
+    private File working;
+    private File failing;
+    private File broken;
+
+    @Before
+    public void write() throws IOException {
+        standardInput = System.in;
+        standardOutput = System.out;
+        standardError = System.err;
+        working = program("working.ps", "let x: number = 2;\nprint x * 21;\nprint \"done\";\n");
+        failing = program("failing.ps", "let x: number;\nprint \"before\";\nprint x > 1;\n");
+        broken = program("broken.ps", "print 1;\nprint (2;\n");
+    }
+
+    @After
+    public void restore() {
+        System.setIn(standardInput);
+        System.setOut(standardOutput);
+        System.setErr(standardError);
+    }
+
+    private File program(String name, String source) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // The answers by the id of their request, as status then output.
+    private static Map<Integer, String[]> serve(String requests) throws IOException {
+        ByteArrayOutputStream answers = new ByteArrayOutputStream();
+        System.setIn(new ByteArrayInputStream(requests.getBytes()));
+        System.setOut(new PrintStream(answers));
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(0, new Daemon(null).serveStandardInput());
+
+        Map<Integer, String[]> answered = new HashMap<>();
+        String text = new String(answers.toByteArray());
+        int at = 0;
+        while (at < text.length()) {
+            int end = text.indexOf('\n', at);
+            assertTrue("Header cut short: " + text.substring(at), end > 0);
+            String[] header = text.substring(at, end).split(" ");
+            assertEquals(4, header.length);
+            assertTrue(Long.parseLong(header[2]) >= 0);
+            int length = Integer.parseInt(header[3]);
+            String output = text.substring(end + 1, end + 1 + length);
+            assertNull("Answered twice: " + header[0], answered.put(Integer.parseInt(header[0]), new String[] { header[1], output }));
+            at = end + 1 + length;
+        }
+        return answered;
+    }
+
+    @Test
+    public void answersEveryRequestOnce() throws IOException {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            requests.append(MODES[i % MODES.length]).append(' ').append(working).append('\n');
+        }
+        Map<Integer, String[]> answered = serve(requests.toString());
+        assertEquals(100, answered.size());
+        for (int id = 1; id <= 100; id++) {
+            assertArrayEquals("request " + id, new String[] { "OK", "42\ndone\n" }, answered.get(id));
+        }
+    }
+
+    @Test
+    public void failuresEndWithTheError() throws IOException {
+        Map<Integer, String[]> answered = serve("interpret " + failing + "\n"
+                + "\n"
+                + "nodes " + broken + "\n"
+                + "interpret " + new File(folder.getRoot(), "missing.ps") + "\n"
+                + "bogus " + working + "\n"
+                + "nonsense\n"
+                + "STATS\n");
+        assertEquals(6, answered.size());
+
+        assertArrayEquals(new String[] { "ERROR", "before\nOperands must be numbers. at line 3\n" }, answered.get(1));
+        assertArrayEquals(new String[] { "ERROR", "Expect ')' after expression. at line 2\n" }, answered.get(2));
+        assertEquals("ERROR", answered.get(3)[0]);
+        assertArrayEquals(new String[] { "ERROR", "Unknown mode bogus\n" }, answered.get(4));
+        assertArrayEquals(new String[] { "ERROR", "Expected a mode and a file\n" }, answered.get(5));
+        assertEquals("OK", answered.get(6)[0]);
+        assertTrue(answered.get(6)[1], answered.get(6)[1].startsWith("requests "));
+    }
+}